@@ -0,0 +1,267 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+//self-balancing version of BinaryTree. Heights of the two subtrees of any node
+//differ by at most one, so the tree height stays O(log n) for any insertion order
+public class AVLTree<T extends Comparable<T>> implements Iterable<T> {
+    private Node root;
+    private int size;
+
+    public AVLTree() {
+
+    }
+
+    //basic methods
+    public void add(T element) {
+        root = add(element, root);
+    }
+
+    private Node add(T element, Node curent) {
+        //found the spot
+        if (curent == null) {
+            size++;
+            return new Node(element);
+        }
+
+        int compare = curent.data.compareTo(element);
+
+        if (compare < 0) {
+            curent.right = add(element, curent.right);
+        } else if (compare > 0) {
+            curent.left = add(element, curent.left);
+        } else {
+            return curent;//duplicate, nothing changed
+        }
+        return balance(curent);
+    }
+
+    public void remove(T element) {
+        root = remove(element, root);
+    }
+
+    private Node remove(T element, Node curent) {
+        if (curent == null) {
+            return null;//not found
+        }
+
+        int compare = curent.data.compareTo(element);
+
+        if (compare < 0) {
+            curent.right = remove(element, curent.right);
+        } else if (compare > 0) {
+            curent.left = remove(element, curent.left);
+        } else {
+            //two childrens
+            if (curent.left != null && curent.right != null) {
+                //replace the data with the largest element in the left subtree
+                Node maxLeft = findMax(curent.left);
+                curent.data = maxLeft.data;
+                curent.left = remove(maxLeft.data, curent.left);
+            } else {
+                //one or no children
+                size--;
+                return (curent.left != null) ? curent.left : curent.right;
+            }
+        }
+        return balance(curent);
+    }
+
+    private Node findMax(Node curent) {
+        while (curent.right != null) {
+            curent = curent.right;
+        }
+        return curent;
+    }
+
+    public boolean contains(T element) {
+        Node curent = root;
+        while (curent != null) {
+            int compare = curent.data.compareTo(element);
+            if (compare < 0) {
+                curent = curent.right;
+            } else if (compare > 0) {
+                curent = curent.left;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    //height of the tree, -1 for an empty tree
+    public int height() {
+        return height(root);
+    }
+
+    //rotations
+    private Node balance(Node curent) {
+        updateHeight(curent);
+        int balance = balanceFactor(curent);
+
+        if (balance > 1) {//left heavy
+            if (balanceFactor(curent.left) < 0) {
+                curent.left = rotateLeft(curent.left);
+            }
+            return rotateRight(curent);
+        }
+        if (balance < -1) {//right heavy
+            if (balanceFactor(curent.right) > 0) {
+                curent.right = rotateRight(curent.right);
+            }
+            return rotateLeft(curent);
+        }
+        return curent;
+    }
+
+    private Node rotateRight(Node curent) {
+        Node newRoot = curent.left;
+        curent.left = newRoot.right;
+        newRoot.right = curent;
+        updateHeight(curent);
+        updateHeight(newRoot);
+        return newRoot;
+    }
+
+    private Node rotateLeft(Node curent) {
+        Node newRoot = curent.right;
+        curent.right = newRoot.left;
+        newRoot.left = curent;
+        updateHeight(curent);
+        updateHeight(newRoot);
+        return newRoot;
+    }
+
+    private int height(Node curent) {
+        return (curent == null) ? -1 : curent.height;
+    }
+
+    private void updateHeight(Node curent) {
+        curent.height = 1 + Math.max(height(curent.left), height(curent.right));
+    }
+
+    private int balanceFactor(Node curent) {
+        return height(curent.left) - height(curent.right);
+    }
+
+    //traversals
+    public void inOrder() {
+        inOrder(root);
+    }
+
+    private void inOrder(Node curent) {
+        if (curent != null) {
+            inOrder(curent.left);
+            System.out.println(curent.data);//node
+            inOrder(curent.right);
+        }
+    }
+
+    public void postOrder() {
+        postOrder(root);
+    }
+
+    private void postOrder(Node curent) {
+        if (curent != null) {
+            postOrder(curent.left);
+            postOrder(curent.right);
+            System.out.println(curent.data);//node
+        }
+    }
+
+    public void preOrder() {
+        preOrder(root);
+    }
+
+    private void preOrder(Node curent) {
+        if (curent != null) {
+            System.out.println(curent.data);//node
+            preOrder(curent.left);
+            preOrder(curent.right);
+        }
+    }
+
+    public List<T> toList() {
+        ArrayList<T> results = new ArrayList<>(size);
+        toList(root, results);
+        return results;
+    }
+
+    private void toList(Node curent, List<T> results) {
+        if (curent != null) {
+            toList(curent.left, results);
+            results.add(curent.data);
+            toList(curent.right, results);
+        }
+    }
+
+    private class AVLIterator implements Iterator<T> {
+        private Deque<Node> nodeStack = new ArrayDeque<>();
+
+        public AVLIterator(Node curent) {
+            pushLeft(curent);
+        }
+
+        //push the node and all of it's left children
+        private void pushLeft(Node curent) {
+            while (curent != null) {
+                nodeStack.push(curent);
+                curent = curent.left;
+            }
+        }
+
+        public boolean hasNext() {
+            return !nodeStack.isEmpty();
+        }
+
+        public T next() {
+            if (nodeStack.isEmpty()) {
+                throw new NoSuchElementException("No more elements in the tree");
+            }
+            Node next = nodeStack.pop();
+            pushLeft(next.right);
+            return next.data;
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new AVLIterator(root);
+    }
+
+    //avl tree node
+    private class Node {
+        private T data;
+        private Node left;
+        private Node right;
+        private int height;
+
+        public Node(T data) {
+            this.data = data;
+        }
+
+        public String toString() {
+            String dataString = (data == null) ? "null" : data.toString();
+            String leftChild = (left == null) ? "null" : left.data.toString();
+            String rightChild = (right == null) ? "null" : right.data.toString();
+
+            return leftChild + " <-- " + dataString + " (h=" + height + ") --> " + rightChild;
+        }
+    }
+}
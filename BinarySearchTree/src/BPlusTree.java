@@ -0,0 +1,382 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+//ordered set with the BinaryTree API, stored as a B+ tree. Every node holds up to
+//fanout keys in one array, so a lookup touches log(fanout) n nodes instead of
+//log2 n. Elements live in the leaves, which are linked for fast in-order scans
+public class BPlusTree<T extends Comparable<T>> implements Iterable<T> {
+    private static final int DEFAULT_FANOUT = 64;
+    private static final int MIN_FANOUT = 4;
+
+    private final int fanout;
+    private final int minimum;//fewest keys in a leaf, children in an internal node
+    private Node root;
+    private Leaf firstLeaf;
+    private int size;
+
+    //set by insert() when a node splits, the first key of the new right node
+    private Object splitKey;
+
+    public BPlusTree() {
+        this(DEFAULT_FANOUT);
+    }
+
+    public BPlusTree(int fanout) {
+        if (fanout < MIN_FANOUT) {
+            throw new IllegalArgumentException("Fanout must be at least " + MIN_FANOUT + ": " + fanout);
+        }
+        this.fanout = fanout;
+        this.minimum = fanout / 2;
+    }
+
+    //basic methods
+    public void add(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Null elements are not allowed");
+        }
+        if (root == null) {
+            firstLeaf = new Leaf();
+            root = firstLeaf;
+        }
+        Node split = insert(root, element);
+        if (split != null) {
+            //the root split, grow the tree by one level
+            Internal newRoot = new Internal();
+            newRoot.children[0] = root;
+            newRoot.children[1] = split;
+            newRoot.keys[0] = splitKey;
+            newRoot.count = 2;
+            root = newRoot;
+        }
+    }
+
+    public void remove(T element) {
+        if (root == null || !remove(root, element)) {
+            return;
+        }
+        //shrink the tree when the root is left with a single child
+        if (root instanceof Internal && root.count == 1) {
+            root = ((Internal) root).children[0];
+        } else if (root.count == 0) {
+            root = null;
+            firstLeaf = null;
+        }
+    }
+
+    public boolean contains(T element) {
+        Leaf leaf = findLeaf(element);
+        return leaf != null && search(leaf.keys, leaf.count, element) >= 0;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        root = null;
+        firstLeaf = null;
+        size = 0;
+    }
+
+    //levels above the leaves, -1 for an empty tree. All leaves are at the same depth
+    public int height() {
+        int height = -1;
+        for (Node curent = root; curent != null; height++) {
+            curent = (curent instanceof Internal) ? ((Internal) curent).children[0] : null;
+        }
+        return height;
+    }
+
+    //elements from "from" inclusive to "to" exclusive in order, walks the leaf chain
+    public Iterator<T> subTree(T from, T to) {
+        Leaf leaf = findLeaf(from);
+        int index = 0;
+        if (leaf != null) {
+            index = search(leaf.keys, leaf.count, from);
+            if (index < 0) {
+                index = -index - 1;
+            }
+        }
+        return new LeafIterator(leaf, index, to);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new LeafIterator(firstLeaf, 0, null);
+    }
+
+    //descends to the leaf that would hold the element
+    private Leaf findLeaf(T element) {
+        Node curent = root;
+        while (curent instanceof Internal) {
+            Internal internal = (Internal) curent;
+            curent = internal.children[childIndex(internal, element)];
+        }
+        return (Leaf) curent;
+    }
+
+    //returns the new right sibling if the node split, null otherwise
+    private Node insert(Node curent, T element) {
+        if (curent instanceof Leaf) {
+            return insert((Leaf) curent, element);
+        }
+        Internal internal = (Internal) curent;
+        int index = childIndex(internal, element);
+        Node split = insert(internal.children[index], element);
+        if (split == null) {
+            return null;
+        }
+        //the child split, add the new child and it's separator right after it
+        int keyCount = internal.count - 1;
+        System.arraycopy(internal.keys, index, internal.keys, index + 1, keyCount - index);
+        System.arraycopy(internal.children, index + 1, internal.children, index + 2, internal.count - index - 1);
+        internal.keys[index] = splitKey;
+        internal.children[index + 1] = split;
+        internal.count++;
+
+        if (internal.count <= fanout) {
+            return null;
+        }
+        //too many children, move the upper half to a new node and push the middle key up
+        Internal right = new Internal();
+        int leftCount = internal.count / 2;
+        right.count = internal.count - leftCount;
+        System.arraycopy(internal.children, leftCount, right.children, 0, right.count);
+        System.arraycopy(internal.keys, leftCount, right.keys, 0, right.count - 1);
+        splitKey = internal.keys[leftCount - 1];
+        Arrays.fill(internal.children, leftCount, internal.count, null);
+        Arrays.fill(internal.keys, leftCount - 1, internal.count - 1, null);
+        internal.count = leftCount;
+        return right;
+    }
+
+    private Node insert(Leaf leaf, T element) {
+        int index = search(leaf.keys, leaf.count, element);
+        if (index >= 0) {
+            return null;//duplicate
+        }
+        index = -index - 1;
+        System.arraycopy(leaf.keys, index, leaf.keys, index + 1, leaf.count - index);
+        leaf.keys[index] = element;
+        leaf.count++;
+        size++;
+
+        if (leaf.count <= fanout) {
+            return null;
+        }
+        //too many keys, move the upper half to a new leaf linked after this one
+        Leaf right = new Leaf();
+        int leftCount = leaf.count / 2;
+        right.count = leaf.count - leftCount;
+        System.arraycopy(leaf.keys, leftCount, right.keys, 0, right.count);
+        Arrays.fill(leaf.keys, leftCount, leaf.count, null);
+        leaf.count = leftCount;
+        right.next = leaf.next;
+        leaf.next = right;
+        splitKey = right.keys[0];
+        return right;
+    }
+
+    //returns true if the element was found and removed
+    private boolean remove(Node curent, T element) {
+        if (curent instanceof Leaf) {
+            Leaf leaf = (Leaf) curent;
+            int index = search(leaf.keys, leaf.count, element);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(leaf.keys, index + 1, leaf.keys, index, leaf.count - index - 1);
+            leaf.count--;
+            leaf.keys[leaf.count] = null;
+            size--;
+            return true;
+        }
+        Internal internal = (Internal) curent;
+        int index = childIndex(internal, element);
+        if (!remove(internal.children[index], element)) {
+            return false;
+        }
+        if (internal.children[index].count < minimum) {
+            fixUnderflow(internal, index);
+        }
+        return true;
+    }
+
+    //refills a child that is below the minimum from a sibling, or merges them
+    private void fixUnderflow(Internal parent, int index) {
+        int leftIndex = (index > 0) ? index - 1 : index;
+        Node left = parent.children[leftIndex];
+        Node right = parent.children[leftIndex + 1];
+        //the sibling of the underflowing child
+        Node sibling = (leftIndex == index) ? right : left;
+
+        if (sibling.count > minimum) {
+            if (leftIndex == index) {
+                borrowFromRight(parent, leftIndex, left, right);
+            } else {
+                borrowFromLeft(parent, leftIndex, left, right);
+            }
+        } else {
+            merge(parent, leftIndex, left, right);
+        }
+    }
+
+    private void borrowFromRight(Internal parent, int leftIndex, Node left, Node right) {
+        if (left instanceof Leaf) {
+            left.keys[left.count++] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+            right.keys[--right.count] = null;
+            parent.keys[leftIndex] = right.keys[0];
+        } else {
+            Internal leftNode = (Internal) left;
+            Internal rightNode = (Internal) right;
+            //the separator comes down, the first key of the right node goes up
+            leftNode.keys[leftNode.count - 1] = parent.keys[leftIndex];
+            leftNode.children[leftNode.count++] = rightNode.children[0];
+            parent.keys[leftIndex] = rightNode.keys[0];
+            System.arraycopy(rightNode.keys, 1, rightNode.keys, 0, rightNode.count - 2);
+            System.arraycopy(rightNode.children, 1, rightNode.children, 0, rightNode.count - 1);
+            rightNode.count--;
+            rightNode.keys[rightNode.count - 1] = null;
+            rightNode.children[rightNode.count] = null;
+        }
+    }
+
+    private void borrowFromLeft(Internal parent, int leftIndex, Node left, Node right) {
+        if (left instanceof Leaf) {
+            System.arraycopy(right.keys, 0, right.keys, 1, right.count);
+            right.keys[0] = left.keys[--left.count];
+            right.count++;
+            left.keys[left.count] = null;
+            parent.keys[leftIndex] = right.keys[0];
+        } else {
+            Internal leftNode = (Internal) left;
+            Internal rightNode = (Internal) right;
+            //the separator comes down, the last key of the left node goes up
+            System.arraycopy(rightNode.keys, 0, rightNode.keys, 1, rightNode.count - 1);
+            System.arraycopy(rightNode.children, 0, rightNode.children, 1, rightNode.count);
+            rightNode.keys[0] = parent.keys[leftIndex];
+            rightNode.children[0] = leftNode.children[leftNode.count - 1];
+            rightNode.count++;
+            parent.keys[leftIndex] = leftNode.keys[leftNode.count - 2];
+            leftNode.count--;
+            leftNode.keys[leftNode.count - 1] = null;
+            leftNode.children[leftNode.count] = null;
+        }
+    }
+
+    //moves everything from the right node into the left node and drops the right node
+    private void merge(Internal parent, int leftIndex, Node left, Node right) {
+        if (left instanceof Leaf) {
+            System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+            left.count += right.count;
+            ((Leaf) left).next = ((Leaf) right).next;
+        } else {
+            Internal leftNode = (Internal) left;
+            Internal rightNode = (Internal) right;
+            leftNode.keys[leftNode.count - 1] = parent.keys[leftIndex];
+            System.arraycopy(rightNode.keys, 0, leftNode.keys, leftNode.count, rightNode.count - 1);
+            System.arraycopy(rightNode.children, 0, leftNode.children, leftNode.count, rightNode.count);
+            leftNode.count += rightNode.count;
+        }
+        //remove the separator and the right child from the parent
+        int keyCount = parent.count - 1;
+        System.arraycopy(parent.keys, leftIndex + 1, parent.keys, leftIndex, keyCount - leftIndex - 1);
+        System.arraycopy(parent.children, leftIndex + 2, parent.children, leftIndex + 1, parent.count - leftIndex - 2);
+        parent.count--;
+        parent.keys[parent.count - 1] = null;
+        parent.children[parent.count] = null;
+    }
+
+    //child to descend into. Keys equal to a separator live in the right subtree
+    private int childIndex(Internal internal, T element) {
+        int index = search(internal.keys, internal.count - 1, element);
+        return (index >= 0) ? index + 1 : -index - 1;
+    }
+
+    private int search(Object[] keys, int count, T element) {
+        return Arrays.binarySearch(keys, 0, count, element);
+    }
+
+    @Override
+    public String toString() {
+        return "BPlusTree{" +
+                "fanout=" + fanout +
+                ", size=" + size +
+                '}';
+    }
+
+    private class LeafIterator implements Iterator<T> {
+        private Leaf leaf;
+        private int index;
+        private T to;//exclusive upper bound, null for no bound
+
+        public LeafIterator(Leaf leaf, int index, T to) {
+            this.leaf = leaf;
+            this.index = index;
+            this.to = to;
+            skipEmpty();
+        }
+
+        //moves past the end of the current leaf to the next one
+        private void skipEmpty() {
+            while (leaf != null && index >= leaf.count) {
+                leaf = leaf.next;
+                index = 0;
+            }
+        }
+
+        //leaves only ever store elements of this tree, so the cast is safe
+        @SuppressWarnings("unchecked")
+        private T key() {
+            return (T) leaf.keys[index];
+        }
+
+        public boolean hasNext() {
+            return leaf != null && (to == null || key().compareTo(to) < 0);
+        }
+
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in the tree");
+            }
+            T next = key();
+            index++;
+            skipEmpty();
+            return next;
+        }
+    }
+
+    //leaves hold count keys, internal nodes hold count children and count - 1 keys.
+    //Arrays have one extra slot so a node can overflow before it splits
+    private abstract class Node {
+        protected Object[] keys;
+        protected int count;
+    }
+
+    private class Leaf extends Node {
+        private Leaf next;
+
+        public Leaf() {
+            keys = new Object[fanout + 1];
+        }
+    }
+
+    private class Internal extends Node {
+        private Node[] children;
+
+        public Internal() {
+            keys = new Object[fanout];
+            //Node is an inner class of a generic type, so Node[] can't be created
+            //directly. The wildcard array only ever holds this tree's nodes
+            @SuppressWarnings("unchecked")
+            Node[] created = (Node[]) new BPlusTree<?>.Node[fanout + 1];
+            children = created;
+        }
+    }
+}
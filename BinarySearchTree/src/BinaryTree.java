@@ -1,118 +1,354 @@
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Stack;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 public class BinaryTree<T extends Comparable<T>> implements Iterable<T> {
     private Node root;
     private int size;
+    private int modCount;
 
     public BinaryTree() {
 
     }
 
-    //basic methods
-    public void add(T element) {
-        if (root == null) {
-            root = new Node(element);
-            size++;//don't forget this part!!
-        } else {
-            //we need recursively find the spot
-            root = add(element, root);
+    //bulk loading. Builds a perfectly balanced tree in O(n) without comparing
+    //elements, so the input must be sorted ascending with no duplicates
+    public static <T extends Comparable<T>> BinaryTree<T> fromSorted(T[] sorted) {
+        BinaryTree<T> tree = new BinaryTree<>();
+        tree.root = tree.build(sorted, 0, sorted.length - 1);
+        tree.size = sorted.length;
+        return tree;
+    }
+
+    //same as above, reads count elements from the iterator
+    public static <T extends Comparable<T>> BinaryTree<T> fromSorted(Iterator<? extends T> sorted, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Negative count: " + count);
         }
+        BinaryTree<T> tree = new BinaryTree<>();
+        tree.root = tree.build(sorted, count);
+        tree.size = count;
+        return tree;
     }
 
-    private Node add(T element, Node curent) {
-        //if twe have a null current node, we found needed spot. BASE CASE
-        if (curent == null) {
-            size++;
-            return new Node(element);
+    //rebuilds the tree into a perfectly balanced one, reusing the nodes
+    public void rebalance() {
+        List<Node> nodes = new ArrayList<>(size);
+        //in-order flatten
+        Deque<Node> nodeStack = new ArrayDeque<>();
+        Node curent = root;
+        while (curent != null || !nodeStack.isEmpty()) {
+            while (curent != null) {
+                nodeStack.push(curent);
+                curent = curent.left;
+            }
+            curent = nodeStack.pop();
+            nodes.add(curent);
+            curent = curent.right;
         }
+        root = relink(nodes, 0, nodes.size() - 1);
+        modCount++;
+    }
 
-        //are we looking to the left and right
-        int compare = curent.data.compareTo(element);
+    //read-only copy in a single array, see FrozenTree. This tree stays usable.
+    //At most FrozenTree.MAX_SIZE elements
+    public FrozenTree<T> freeze() {
+        if (size > FrozenTree.MAX_SIZE) {
+            throw new IllegalStateException("Can't freeze more than " + FrozenTree.MAX_SIZE + " elements: " + size);
+        }
+        //the array only ever holds elements of this tree, and FrozenTree only reads T from it
+        @SuppressWarnings("unchecked")
+        T[] sorted = (T[]) toArray(new Comparable<?>[size]);
+        return FrozenTree.fromSorted(sorted);
+    }
 
-        if (compare < 0) {
-            curent.right = add(element, curent.right);
-        } else if (compare > 0) {
-            curent.left = add(element, curent.left);
+    //the middle element becomes the root, recursion depth is O(log n)
+    private Node build(T[] sorted, int low, int high) {
+        if (low > high) {
+            return null;
         }
+        int middle = (low + high) >>> 1;
+        Node curent = new Node(sorted[middle]);
+        curent.left = build(sorted, low, middle - 1);
+        curent.right = build(sorted, middle + 1, high);
+        curent.size = high - low + 1;
         return curent;
     }
 
+    //builds the left subtree first so elements are read in order
+    private Node build(Iterator<? extends T> sorted, int count) {
+        if (count == 0) {
+            return null;
+        }
+        int leftCount = (count - 1) / 2;
+        Node left = build(sorted, leftCount);
+        Node curent = new Node(sorted.next());
+        curent.left = left;
+        curent.right = build(sorted, count - leftCount - 1);
+        curent.size = count;
+        return curent;
+    }
+
+    private Node relink(List<Node> nodes, int low, int high) {
+        if (low > high) {
+            return null;
+        }
+        int middle = (low + high) >>> 1;
+        Node curent = nodes.get(middle);
+        curent.left = relink(nodes, low, middle - 1);
+        curent.right = relink(nodes, middle + 1, high);
+        curent.size = high - low + 1;
+        return curent;
+    }
+
+    //basic methods. All of them loop down the tree instead of recursing, so
+    //degenerate trees don't run out of stack
+    public void add(T element) {
+        if (root == null) {
+            root = new Node(element);
+            size++;
+            modCount++;
+            return;
+        }
+
+        //walk down until we find a free spot. Subtree sizes are counted on the
+        //way down and taken back in the rare case of a duplicate
+        Node curent = root;
+        while (true) {
+            //are we looking to the left and right
+            int compare = curent.data.compareTo(element);
+            if (compare == 0) {
+                adjustSizes(root, curent, element, -1);
+                return;
+            }
+            curent.size++;//the new node ends up below this one
+
+            if (compare < 0) {
+                if (curent.right == null) {
+                    curent.right = new Node(element);
+                    break;
+                }
+                curent = curent.right;
+            } else {
+                if (curent.left == null) {
+                    curent.left = new Node(element);
+                    break;
+                }
+                curent = curent.left;
+            }
+        }
+        size++;//don't forget this part!!
+        modCount++;
+    }
+
+    //adds delta to the size of every node on the search path of the element
+    //from curent down to stop, stop itself excluded
+    private void adjustSizes(Node curent, Node stop, T element, int delta) {
+        while (curent != stop) {
+            curent.size += delta;
+            curent = (curent.data.compareTo(element) < 0) ? curent.right : curent.left;
+        }
+    }
+
     //returns true if the elements is found and removes it.
     public void remove(T element) {
         root = remove(element, root);
     }
 
+    //removes the element from the subtree and returns the new root of the subtree
     public Node remove(T element, Node curent) {
-        //base case
-        if (curent == null) {
-            return null;//not found
+        Node subtreeRoot = curent;
+        Node parent = null;
+
+        //find the node and it's parent. Subtree sizes are counted down on the
+        //way and given back if the element is not there
+        while (true) {
+            if (curent == null) {
+                adjustSizes(subtreeRoot, null, element, 1);
+                return subtreeRoot;//not found
+            }
+            curent.size--;
+            int compare = curent.data.compareTo(element);
+            if (compare == 0) {
+                break;
+            }
+            parent = curent;
+            curent = (compare < 0) ? curent.right : curent.left;
         }
 
-        int compare = curent.data.compareTo(element);
-
-        if (compare < 0) {
-            curent.right = remove(element, curent.right);
-        } else if (compare > 0) {
-            curent.left = remove(element, curent.left);
+        //two childrens
+        if (curent.left != null && curent.right != null) {
+            //replace the data at our current node with the largest element in
+            //the left subtree and remove that node instead
+            Node maxParent = curent;
+            Node maxLeft = curent.left;
+            while (maxLeft.right != null) {
+                maxLeft.size--;
+                maxParent = maxLeft;
+                maxLeft = maxLeft.right;
+            }
+            curent.data = maxLeft.data;
+            parent = maxParent;
+            curent = maxLeft;
+        }
 
+        //one or no children, link the child to the parent
+        Node child = (curent.left != null) ? curent.left : curent.right;
+        if (parent == null) {
+            subtreeRoot = child;
+        } else if (parent.left == curent) {
+            parent.left = child;
         } else {
-            //two childrens
-            if (curent.left != null && curent.right != null) {
-                //replace the data at our current node
-                Node maxLeft = findMax(curent.left);
-                curent.data = maxLeft.data;
+            parent.right = child;
+        }
+        size--;
+        modCount++;
+        return subtreeRoot;
+    }
 
-                //remove largest element in the left subtree
-                curent.left = remove(maxLeft.data, curent.left);
+    public boolean contains(T element) {
+        return contains(element, root);
+    }
 
-                //size-- is not necessary
-            } else if (curent.left != null) {//one child
+    public boolean contains(T element, Node curent) {
+        while (curent != null) {
+            int compare = curent.data.compareTo(element);
+            if (compare < 0) {
+                curent = curent.right;
+            } else if (compare > 0) {
                 curent = curent.left;
-                size--;
-            } else if (curent.right != null) {//one child
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    //ordered queries, all O(height)
+
+    //largest element less than or equal to the given one, or null
+    public T floor(T element) {
+        Node curent = root;
+        T result = null;
+        while (curent != null) {
+            int compare = curent.data.compareTo(element);
+            if (compare == 0) {
+                return curent.data;
+            }
+            if (compare < 0) {
+                result = curent.data;//candidate, look for a larger one
                 curent = curent.right;
-                size--;
-            } else {//no children
-                curent = null;
-                size--;
+            } else {
+                curent = curent.left;
             }
         }
-        return curent;
+        return result;
     }
 
-    private Node findMax(Node curent){
-        if(curent.right != null){
-            return findMax(curent.right);
+    //smallest element greater than or equal to the given one, or null
+    public T ceiling(T element) {
+        Node curent = root;
+        T result = null;
+        while (curent != null) {
+            int compare = curent.data.compareTo(element);
+            if (compare == 0) {
+                return curent.data;
+            }
+            if (compare > 0) {
+                result = curent.data;//candidate, look for a smaller one
+                curent = curent.left;
+            } else {
+                curent = curent.right;
+            }
         }
+        return result;
+    }
 
-        return curent;
+    //largest element strictly less than the given one, or null
+    public T lower(T element) {
+        Node curent = root;
+        T result = null;
+        while (curent != null) {
+            if (curent.data.compareTo(element) < 0) {
+                result = curent.data;
+                curent = curent.right;
+            } else {
+                curent = curent.left;
+            }
+        }
+        return result;
     }
 
-    public boolean contains(T element) {
-        return contains(element, root);
+    //smallest element strictly greater than the given one, or null
+    public T higher(T element) {
+        Node curent = root;
+        T result = null;
+        while (curent != null) {
+            if (curent.data.compareTo(element) > 0) {
+                result = curent.data;
+                curent = curent.left;
+            } else {
+                curent = curent.right;
+            }
+        }
+        return result;
     }
 
-    public boolean contains(T element, Node curent) {
-        if (curent == null) {
-            return false;
+    //number of elements strictly less than the given one
+    public int rank(T element) {
+        Node curent = root;
+        int rank = 0;
+        while (curent != null) {
+            int compare = curent.data.compareTo(element);
+            if (compare < 0) {
+                //the node and it's whole left subtree are smaller
+                rank += size(curent.left) + 1;
+                curent = curent.right;
+            } else if (compare > 0) {
+                curent = curent.left;
+            } else {
+                return rank + size(curent.left);
+            }
         }
+        return rank;
+    }
 
-        int compare = curent.data.compareTo(element);
-        if (compare < 0) {
-            return contains(element, curent.right);
+    //k-th smallest element, counting from 0
+    public T select(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
         }
-        if (compare > 0) {
-            return contains(element, curent.left);
-        } else {
-            return true;
+        Node curent = root;
+        while (true) {
+            int leftSize = size(curent.left);
+            if (index < leftSize) {
+                curent = curent.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                curent = curent.right;
+            } else {
+                return curent.data;
+            }
         }
     }
 
-    public int size() {
-        return this.size;
+    //elements from "from" inclusive to "to" exclusive in order, O(height + k)
+    public Iterator<T> subTree(T from, T to) {
+        return new RangeIterator(from, to);
+    }
+
+    private int size(Node curent) {
+        return (curent == null) ? 0 : curent.size;
     }
 
     public boolean isEmpty() {
@@ -122,92 +358,231 @@ public class BinaryTree<T extends Comparable<T>> implements Iterable<T> {
     public void clear() {
         root = null;
         size = 0;
+        modCount++;
     }
 
 
+    //traversals print every element, the forEach versions pass them to a visitor
     public void inOrder(){
-        inOrder(root);
+        forEachInOrder(System.out::println);
     }
 
-    private void inOrder(Node curent){
-        if(curent != null){
-            inOrder(curent.left);
-            System.out.println(curent.data);//node
-            inOrder(curent.right);
+    public void forEachInOrder(Consumer<? super T> visitor){
+        Deque<Node> nodeStack = new ArrayDeque<>();
+        Node curent = root;
+        while (curent != null || !nodeStack.isEmpty()) {
+            //dive to the left
+            while (curent != null) {
+                nodeStack.push(curent);
+                curent = curent.left;
+            }
+            curent = nodeStack.pop();
+            visitor.accept(curent.data);//node
+            curent = curent.right;
         }
     }
 
     public void postOrder(){
-        postOrder(root);
+        forEachPostOrder(System.out::println);
     }
 
-    private void postOrder(Node curent){
-        if(curent != null){
-            postOrder(curent.left);
-            postOrder(curent.right);
-            System.out.println(curent.data);//node
+    public void forEachPostOrder(Consumer<? super T> visitor){
+        Deque<Node> nodeStack = new ArrayDeque<>();
+        Node curent = root;
+        Node lastVisited = null;
+        while (curent != null || !nodeStack.isEmpty()) {
+            //dive to the left
+            while (curent != null) {
+                nodeStack.push(curent);
+                curent = curent.left;
+            }
+            Node top = nodeStack.peek();
+            //visit the right subtree first, unless we just came back from it
+            if (top.right != null && top.right != lastVisited) {
+                curent = top.right;
+            } else {
+                visitor.accept(top.data);//node
+                lastVisited = nodeStack.pop();
+            }
         }
     }
 
     public void preOrder(){
-        preOrder(root);
-
+        forEachPreOrder(System.out::println);
     }
 
-    private void preOrder(Node curent){
-        if(curent != null){
-            System.out.println(curent.data);//node
-            preOrder(curent.left);
-            preOrder(curent.right);
+    public void forEachPreOrder(Consumer<? super T> visitor){
+        if (root == null) {
+            return;
+        }
+        Deque<Node> nodeStack = new ArrayDeque<>();
+        nodeStack.push(root);
+        while (!nodeStack.isEmpty()) {
+            Node curent = nodeStack.pop();
+            visitor.accept(curent.data);//node
+            //push right first so the left subtree comes out first
+            if (curent.right != null) {
+                nodeStack.push(curent.right);
+            }
+            if (curent.left != null) {
+                nodeStack.push(curent.left);
+            }
         }
     }
 
     public List<T> toList(){
-        ArrayList<T> results = new ArrayList<>();
-        toList(root, results);
+        ArrayList<T> results = new ArrayList<>(size);
+        forEachInOrder(results::add);
         return results;
+    }
 
+    public Object[] toArray(){
+        return toArray(new Object[size]);
     }
 
-    private void toList(Node curent, List<T> results){
-        if(curent != null){
-            inOrder(curent.left);
-            results.add(curent.data);
-            inOrder(curent.right);
+    //fills the array in order, same contract as Collection.toArray(T[])
+    public <E> E[] toArray(E[] array){
+        if (array.length < size) {
+            array = Arrays.copyOf(array, size);
+        } else if (array.length > size) {
+            array[size] = null;
         }
+        E[] results = array;
+        int[] position = new int[1];
+        forEachInOrder(element -> results[position[0]++] = (E) element);
+        return results;
     }
 
+    //in-order iterator over a plain array stack, no synchronized java.util.Stack
     private class BSTIterator implements Iterator<T>{
-        private Stack<Node> nodeStack = new Stack<>();
-
-        public BSTIterator(Node curent){
+        private Node[] nodeStack;
+        private int depth;
+        private boolean descending;
+        private Node lastReturned;
+        private int expectedModCount = modCount;
+
+        public BSTIterator(Node curent, boolean descending){
+            this.descending = descending;
+            //enough for a balanced tree, grows for degenerate ones. Node is an
+            //inner class of a generic type, so Node[] can't be created directly
+            @SuppressWarnings("unchecked")
+            Node[] created = (Node[]) new BinaryTree<?>.Node[2 * (33 - Integer.numberOfLeadingZeros(size))];
+            nodeStack = created;
             //move to the first node
+            pushPath(curent);
+        }
+
+        //pushes the node and dives to the left (or to the right when descending)
+        private void pushPath(Node curent){
             while (curent != null){
-                nodeStack.push(curent);
-                curent = curent.left;
+                if (depth == nodeStack.length) {
+                    nodeStack = Arrays.copyOf(nodeStack, depth * 2);
+                }
+                nodeStack[depth++] = curent;
+                curent = descending ? curent.right : curent.left;
             }
         }
 
         public boolean hasNext(){
-            return !nodeStack.isEmpty();
+            checkForModification();
+            return depth > 0;
         }
 
         public T next(){
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in the tree");
+            }
             //1. get the next element to report
-            Node next = nodeStack.pop();
+            Node next = nodeStack[--depth];
+            nodeStack[depth] = null;
+
+            //2. if there is a sub-tree on the far side, find it's closest element
+            pushPath(descending ? next.left : next.right);
+            lastReturned = next;
+            return next.data;
+        }
+
+        //removing a node with two children moves it's in-order predecessor into
+        //it and unlinks the predecessor's node, which a descending iterator has
+        //on the stack. So the stack is rebuilt from the root instead of trusted
+        public void remove(){
+            if (lastReturned == null) {
+                throw new IllegalStateException("next() wasn't called or the element is already removed");
+            }
+            checkForModification();
+            T removed = lastReturned.data;
+            BinaryTree.this.remove(removed);
+            lastReturned = null;
+            expectedModCount = modCount;
+            seekAfter(removed);
+        }
+
+        //pushes the path to the first element after the given one in iteration
+        //order, the same stack next() would have left for it
+        private void seekAfter(T element){
+            Arrays.fill(nodeStack, 0, depth, null);
+            depth = 0;
+            Node curent = root;
+            while (curent != null){
+                int compare = curent.data.compareTo(element);
+                if (descending ? compare < 0 : compare > 0) {
+                    if (depth == nodeStack.length) {
+                        nodeStack = Arrays.copyOf(nodeStack, depth * 2);
+                    }
+                    nodeStack[depth++] = curent;
+                    curent = descending ? curent.right : curent.left;
+                } else {
+                    curent = descending ? curent.left : curent.right;
+                }
+            }
+        }
+
+        private void checkForModification(){
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException("The tree was changed during iteration");
+            }
+        }
+    }
 
-            //2. if there is a right sub-tree, find the smallest element
-            if(next.right!=null){
-                //add the right child
-                nodeStack.push(next.right);
+    private class RangeIterator implements Iterator<T>{
+        private Deque<Node> nodeStack = new ArrayDeque<>();
+        private T to;
+        private int expectedModCount = modCount;
 
-                //and dive to the left of out right child
-                Node curent = next.right;
-                while (curent.left != null){
-                    nodeStack.push(curent.left);
+        public RangeIterator(T from, T to){
+            this.to = to;
+            //push the path to the first element >= from, skipping smaller subtrees
+            Node curent = root;
+            while (curent != null){
+                if(curent.data.compareTo(from) >= 0){
+                    nodeStack.push(curent);
                     curent = curent.left;
+                } else {
+                    curent = curent.right;
                 }
             }
+        }
+
+        public boolean hasNext(){
+            //fail fast like BSTIterator, the stack may hold nodes that were unlinked
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException("The tree was changed during iteration");
+            }
+            return !nodeStack.isEmpty() && nodeStack.peek().data.compareTo(to) < 0;
+        }
+
+        public T next(){
+            if(!hasNext()){
+                throw new NoSuchElementException("No more elements in the range");
+            }
+            Node next = nodeStack.pop();
+
+            //everything in the right subtree is greater than next, so no need to check "from"
+            Node curent = next.right;
+            while (curent != null){
+                nodeStack.push(curent);
+                curent = curent.left;
+            }
             return next.data;
         }
     }
@@ -217,7 +592,7 @@ public class BinaryTree<T extends Comparable<T>> implements Iterable<T> {
         private int position;
 
         public NaiveIterator(BinaryTree owner){
-            data = owner.toList().toArray();
+            data = owner.toArray();
         }
 
         public boolean hasNext(){
@@ -231,7 +606,11 @@ public class BinaryTree<T extends Comparable<T>> implements Iterable<T> {
 
     @Override
     public Iterator<T> iterator() {
-        return new BSTIterator(root);
+        return new BSTIterator(root, false);
+    }
+
+    public Iterator<T> descendingIterator() {
+        return new BSTIterator(root, true);
     }
 
     //binary tree node
@@ -239,6 +618,7 @@ public class BinaryTree<T extends Comparable<T>> implements Iterable<T> {
         private T data;
         private Node left;
         private Node right;
+        private int size = 1;//nodes in this subtree, including this one
 
         public Node(T data) {
             this.data = data;
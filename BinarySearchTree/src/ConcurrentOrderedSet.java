@@ -0,0 +1,293 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+//thread-safe ordered set with the BinaryTree API, built as a lazy skip list.
+//contains() and iteration never lock, add() and remove() lock only the few
+//nodes around the change. Iterators are weakly consistent: they never throw
+//ConcurrentModificationException and may or may not see concurrent changes
+public class ConcurrentOrderedSet<T extends Comparable<T>> implements Iterable<T> {
+    private static final int MAX_LEVEL = 32;
+
+    //sentinels, head is smaller and tail is larger than any element
+    private final Node head = new Node(null, MAX_LEVEL - 1);
+    private final Node tail = new Node(null, MAX_LEVEL - 1);
+    private final AtomicInteger size = new AtomicInteger();
+
+    public ConcurrentOrderedSet() {
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            head.next.set(level, tail);
+        }
+        head.fullyLinked = true;
+        tail.fullyLinked = true;
+    }
+
+    //basic methods, return true if the set changed
+    public boolean add(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Null elements are not allowed");
+        }
+        int topLevel = randomLevel();
+        Node[] preds = newNodeArray();
+        Node[] succs = newNodeArray();
+        while (true) {
+            int foundLevel = find(element, preds, succs);
+            if (foundLevel != -1) {
+                Node found = succs[foundLevel];
+                if (!found.marked) {
+                    //someone else is adding it, wait until it's visible
+                    while (!found.fullyLinked) {
+                        Thread.yield();
+                    }
+                    return false;
+                }
+                continue;//being removed, try again
+            }
+
+            int highestLocked = -1;
+            try {
+                boolean valid = true;
+                for (int level = 0; valid && level <= topLevel; level++) {
+                    Node pred = preds[level];
+                    Node succ = succs[level];
+                    pred.lock.lock();
+                    highestLocked = level;
+                    //nothing changed between pred and succ since find()
+                    valid = !pred.marked && !succ.marked && pred.next.get(level) == succ;
+                }
+                if (!valid) {
+                    continue;
+                }
+
+                Node node = new Node(element, topLevel);
+                for (int level = 0; level <= topLevel; level++) {
+                    node.next.set(level, succs[level]);
+                }
+                for (int level = 0; level <= topLevel; level++) {
+                    preds[level].next.set(level, node);
+                }
+                node.fullyLinked = true;
+                size.incrementAndGet();
+                return true;
+            } finally {
+                unlock(preds, highestLocked);
+            }
+        }
+    }
+
+    public boolean remove(T element) {
+        Node victim = null;
+        boolean isMarked = false;
+        int topLevel = -1;
+        Node[] preds = newNodeArray();
+        Node[] succs = newNodeArray();
+        while (true) {
+            int foundLevel = find(element, preds, succs);
+            if (foundLevel != -1) {
+                victim = succs[foundLevel];
+            }
+            //only remove nodes that are fully added and found at their top level
+            if (isMarked || (foundLevel != -1 && victim.fullyLinked
+                    && victim.topLevel == foundLevel && !victim.marked)) {
+                if (!isMarked) {
+                    topLevel = victim.topLevel;
+                    victim.lock.lock();
+                    if (victim.marked) {
+                        victim.lock.unlock();
+                        return false;
+                    }
+                    //logical removal, contains() stops seeing it from here
+                    victim.marked = true;
+                    isMarked = true;
+                }
+
+                int highestLocked = -1;
+                try {
+                    boolean valid = true;
+                    for (int level = 0; valid && level <= topLevel; level++) {
+                        Node pred = preds[level];
+                        pred.lock.lock();
+                        highestLocked = level;
+                        valid = !pred.marked && pred.next.get(level) == victim;
+                    }
+                    if (!valid) {
+                        continue;
+                    }
+                    //physical removal, top down so the node stays reachable from below
+                    for (int level = topLevel; level >= 0; level--) {
+                        preds[level].next.set(level, victim.next.get(level));
+                    }
+                    victim.lock.unlock();
+                    size.decrementAndGet();
+                    return true;
+                } finally {
+                    unlock(preds, highestLocked);
+                }
+            }
+            return false;
+        }
+    }
+
+    //wait free and allocation free, only reads the links. Nodes are removed
+    //logically before they are unlinked, so a node that is still reachable
+    //but marked is treated as gone
+    public boolean contains(T element) {
+        Node found = ceilingNode(element);
+        return found != tail && found.data.compareTo(element) == 0
+                && found.fullyLinked && !found.marked;
+    }
+
+    //exact when no other thread is changing the set
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    //removes elements one by one, so it's safe with concurrent readers and writers
+    public void clear() {
+        for (T element : this) {
+            remove(element);
+        }
+    }
+
+    //elements from "from" inclusive to "to" exclusive in order
+    public Iterator<T> subTree(T from, T to) {
+        return new SkipListIterator(ceilingNode(from), to);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new SkipListIterator(head.next.get(0), null);
+    }
+
+    //fills preds and succs on every level around the element, returns the highest
+    //level the element was found on or -1. Never locks
+    private int find(T element, Node[] preds, Node[] succs) {
+        int foundLevel = -1;
+        Node pred = head;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            Node curent = pred.next.get(level);
+            while (compare(curent, element) < 0) {
+                pred = curent;
+                curent = pred.next.get(level);
+            }
+            if (foundLevel == -1 && compare(curent, element) == 0) {
+                foundLevel = level;
+            }
+            preds[level] = pred;
+            succs[level] = curent;
+        }
+        return foundLevel;
+    }
+
+    //first node on the bottom level that is not smaller than the element, or
+    //tail. Stops going down as soon as an equal node is met on any level
+    private Node ceilingNode(T element) {
+        Node pred = head;
+        Node curent = tail;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            curent = pred.next.get(level);
+            int compare;
+            while ((compare = compare(curent, element)) < 0) {
+                pred = curent;
+                curent = pred.next.get(level);
+            }
+            if (compare == 0) {
+                return curent;
+            }
+        }
+        return curent;
+    }
+
+    private int compare(Node node, T element) {
+        if (node == head) {
+            return -1;
+        }
+        if (node == tail) {
+            return 1;
+        }
+        return node.data.compareTo(element);
+    }
+
+    private void unlock(Node[] preds, int highestLocked) {
+        for (int level = 0; level <= highestLocked; level++) {
+            preds[level].lock.unlock();
+        }
+    }
+
+    //level with probability 1/2 of each next one
+    private int randomLevel() {
+        return Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt() | (1 << (MAX_LEVEL - 1)));
+    }
+
+    //Node is an inner class of a generic type, so Node[] can't be created
+    //directly. The wildcard array only ever holds this set's nodes
+    @SuppressWarnings("unchecked")
+    private Node[] newNodeArray() {
+        return (Node[]) new ConcurrentOrderedSet<?>.Node[MAX_LEVEL];
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentOrderedSet{" +
+                "size=" + size +
+                '}';
+    }
+
+    //walks the bottom level, skipping nodes that are being added or removed
+    private class SkipListIterator implements Iterator<T> {
+        private Node nextNode;
+        private T to;//exclusive upper bound, null for no bound
+
+        public SkipListIterator(Node first, T to) {
+            this.to = to;
+            this.nextNode = skipInvisible(first);
+        }
+
+        private Node skipInvisible(Node curent) {
+            while (curent != tail && (curent.marked || !curent.fullyLinked)) {
+                curent = curent.next.get(0);
+            }
+            return curent;
+        }
+
+        public boolean hasNext() {
+            return nextNode != tail && (to == null || nextNode.data.compareTo(to) < 0);
+        }
+
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in the set");
+            }
+            T data = nextNode.data;
+            nextNode = skipInvisible(nextNode.next.get(0));
+            return data;
+        }
+    }
+
+    //skip list node, linked on levels 0 to topLevel
+    private class Node {
+        private final T data;
+        private final AtomicReferenceArray<Node> next;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int topLevel;
+        private volatile boolean marked;
+        private volatile boolean fullyLinked;
+
+        public Node(T data, int topLevel) {
+            this.data = data;
+            this.topLevel = topLevel;
+            this.next = new AtomicReferenceArray<>(topLevel + 1);
+        }
+
+        public String toString() {
+            return (data == null) ? "sentinel" : data.toString();
+        }
+    }
+}
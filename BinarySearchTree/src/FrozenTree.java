@@ -0,0 +1,150 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+//immutable ordered set for read-only indexes, made by BinaryTree.freeze(). The
+//elements sit in one array in Eytzinger (breadth first) order: the children of
+//slot k are 2k and 2k + 1, slot 0 is unused. No nodes, so one reference per element,
+//and the top levels of every search share the same few cache lines.
+//Searches always walk the full height and pick the child with arithmetic instead of
+//an early exit, then recover the answer from the bits of the final index
+public final class FrozenTree<T extends Comparable<T>> implements Iterable<T> {
+    //searches step to slot 2k + 1 for k up to size, that has to fit in an int
+    public static final int MAX_SIZE = (1 << 30) - 1;
+
+    private final Object[] tree;
+    private final int size;
+
+    private FrozenTree(Object[] tree, int size) {
+        this.tree = tree;
+        this.size = size;
+    }
+
+    //input must be sorted ascending with no duplicates, like BinaryTree.fromSorted()
+    public static <T extends Comparable<T>> FrozenTree<T> fromSorted(T[] sorted) {
+        int size = sorted.length;
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Can't freeze more than " + MAX_SIZE + " elements: " + size);
+        }
+        Object[] tree = new Object[size + 1];
+        //visit the implicit tree in order and hand out the sorted elements
+        int k = first(size);
+        for (int i = 0; i < size; i++) {
+            tree[k] = sorted[i];
+            k = successor(k, size);
+        }
+        return new FrozenTree<>(tree, size);
+    }
+
+    public boolean contains(T element) {
+        int k = lowerBound(element);
+        return k != 0 && at(k).compareTo(element) == 0;
+    }
+
+    //largest element less than or equal to the given one, or null
+    public T floor(T element) {
+        int k = 1;
+        while (k <= size) {
+            //go right while the slot is still small enough
+            k = 2 * k + (at(k).compareTo(element) <= 0 ? 1 : 0);
+        }
+        //the answer is where we last went right: drop the left turns, then that one
+        k >>>= Integer.numberOfTrailingZeros(k) + 1;
+        return (k == 0) ? null : at(k);
+    }
+
+    //smallest element greater than or equal to the given one, or null
+    public T ceiling(T element) {
+        int k = lowerBound(element);
+        return (k == 0) ? null : at(k);
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    //elements from "from" inclusive to "to" exclusive in order
+    public Iterator<T> subTree(T from, T to) {
+        return new FrozenIterator(lowerBound(from), to);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new FrozenIterator(first(size), null);
+    }
+
+    //slot of the smallest element not less than the given one, 0 if there is none
+    private int lowerBound(T element) {
+        int k = 1;
+        while (k <= size) {
+            k = 2 * k + (at(k).compareTo(element) < 0 ? 1 : 0);
+        }
+        //the answer is where we last went left: drop the right turns, then that one
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    //only fromSorted() fills the array, every slot holds a T
+    @SuppressWarnings("unchecked")
+    private T at(int k) {
+        return (T) tree[k];
+    }
+
+    //leftmost slot, 0 for an empty tree
+    private static int first(int size) {
+        if (size == 0) {
+            return 0;
+        }
+        int k = 1;
+        while (2 * k <= size) {
+            k *= 2;
+        }
+        return k;
+    }
+
+    //next slot in order, 0 after the last one
+    private static int successor(int k, int size) {
+        if (2 * k + 1 <= size) {
+            //leftmost slot of the right subtree
+            k = 2 * k + 1;
+            while (2 * k <= size) {
+                k *= 2;
+            }
+            return k;
+        }
+        //up to the first ancestor we are on the left of
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "FrozenTree{" +
+                "size=" + size +
+                '}';
+    }
+
+    private class FrozenIterator implements Iterator<T> {
+        private int next;
+        private T to;//exclusive upper bound, null for no bound
+
+        public FrozenIterator(int next, T to) {
+            this.next = next;
+            this.to = to;
+        }
+
+        public boolean hasNext() {
+            return next != 0 && (to == null || at(next).compareTo(to) < 0);
+        }
+
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in the tree");
+            }
+            T data = at(next);
+            next = successor(next, size);
+            return data;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+//set of closed intervals [start, end], ordered by start and then by end. Every node
+//also keeps the size of it's subtree and the largest end in it, so overlap queries
+//skip whole subtrees that end too early and select() walks down by sizes.
+//Balanced as an AVL tree
+public class IntervalTree<T extends Comparable<T>> implements Iterable<IntervalTree.Interval<T>> {
+    private Node root;
+
+    public IntervalTree() {
+
+    }
+
+    //basic methods
+    public void add(T start, T end) {
+        root = add(new Interval<>(start, end), root);
+    }
+
+    private Node add(Interval<T> interval, Node curent) {
+        //found the spot
+        if (curent == null) {
+            return new Node(interval);
+        }
+
+        int compare = curent.interval.compareTo(interval);
+
+        if (compare < 0) {
+            curent.right = add(interval, curent.right);
+        } else if (compare > 0) {
+            curent.left = add(interval, curent.left);
+        } else {
+            return curent;//duplicate, nothing changed
+        }
+        return balance(curent);
+    }
+
+    public void remove(T start, T end) {
+        root = remove(new Interval<>(start, end), root);
+    }
+
+    private Node remove(Interval<T> interval, Node curent) {
+        if (curent == null) {
+            return null;//not found
+        }
+
+        int compare = curent.interval.compareTo(interval);
+
+        if (compare < 0) {
+            curent.right = remove(interval, curent.right);
+        } else if (compare > 0) {
+            curent.left = remove(interval, curent.left);
+        } else {
+            //two childrens
+            if (curent.left != null && curent.right != null) {
+                //replace the interval with the largest one in the left subtree
+                Node maxLeft = curent.left;
+                while (maxLeft.right != null) {
+                    maxLeft = maxLeft.right;
+                }
+                curent.interval = maxLeft.interval;
+                curent.left = remove(maxLeft.interval, curent.left);
+            } else {
+                //one or no children
+                return (curent.left != null) ? curent.left : curent.right;
+            }
+        }
+        return balance(curent);
+    }
+
+    public boolean contains(T start, T end) {
+        Interval<T> interval = new Interval<>(start, end);
+        Node curent = root;
+        while (curent != null) {
+            int compare = curent.interval.compareTo(interval);
+            if (compare < 0) {
+                curent = curent.right;
+            } else if (compare > 0) {
+                curent = curent.left;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    //height of the tree, -1 for an empty tree
+    public int height() {
+        return height(root);
+    }
+
+    //interval queries, O(log n + k) for k results
+
+    //all intervals that share at least one point with [from, to], in order
+    public List<Interval<T>> overlapping(T from, T to) {
+        if (from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("Start is after end: " + from + " > " + to);
+        }
+        List<Interval<T>> results = new ArrayList<>();
+        overlapping(root, from, to, results);
+        return results;
+    }
+
+    private void overlapping(Node curent, T from, T to, List<Interval<T>> results) {
+        //nothing in this subtree ends at or after from
+        if (curent == null || curent.max.compareTo(from) < 0) {
+            return;
+        }
+        overlapping(curent.left, from, to, results);
+        //everything from here on to the right starts after to
+        if (curent.interval.start.compareTo(to) > 0) {
+            return;
+        }
+        if (curent.interval.end.compareTo(from) >= 0) {
+            results.add(curent.interval);
+        }
+        overlapping(curent.right, from, to, results);
+    }
+
+    //all intervals that contain the point
+    public List<Interval<T>> stabbing(T point) {
+        return overlapping(point, point);
+    }
+
+    //order statistics
+
+    //index-th smallest interval, 0 based
+    public Interval<T> select(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        }
+        Node curent = root;
+        while (true) {
+            int leftSize = size(curent.left);
+            if (index < leftSize) {
+                curent = curent.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                curent = curent.right;
+            } else {
+                return curent.interval;
+            }
+        }
+    }
+
+    //number of intervals that start before the point
+    public int rank(T point) {
+        int rank = 0;
+        Node curent = root;
+        while (curent != null) {
+            if (curent.interval.start.compareTo(point) < 0) {
+                rank += size(curent.left) + 1;
+                curent = curent.right;
+            } else {
+                curent = curent.left;
+            }
+        }
+        return rank;
+    }
+
+    //rotations
+    private Node balance(Node curent) {
+        update(curent);
+        int balance = balanceFactor(curent);
+
+        if (balance > 1) {//left heavy
+            if (balanceFactor(curent.left) < 0) {
+                curent.left = rotateLeft(curent.left);
+            }
+            return rotateRight(curent);
+        }
+        if (balance < -1) {//right heavy
+            if (balanceFactor(curent.right) > 0) {
+                curent.right = rotateRight(curent.right);
+            }
+            return rotateLeft(curent);
+        }
+        return curent;
+    }
+
+    private Node rotateRight(Node curent) {
+        Node newRoot = curent.left;
+        curent.left = newRoot.right;
+        newRoot.right = curent;
+        update(curent);
+        update(newRoot);
+        return newRoot;
+    }
+
+    private Node rotateLeft(Node curent) {
+        Node newRoot = curent.right;
+        curent.right = newRoot.left;
+        newRoot.left = curent;
+        update(curent);
+        update(newRoot);
+        return newRoot;
+    }
+
+    private int height(Node curent) {
+        return (curent == null) ? -1 : curent.height;
+    }
+
+    private int size(Node curent) {
+        return (curent == null) ? 0 : curent.size;
+    }
+
+    //recomputes height, size and max end from the children
+    private void update(Node curent) {
+        curent.height = 1 + Math.max(height(curent.left), height(curent.right));
+        curent.size = 1 + size(curent.left) + size(curent.right);
+        T max = curent.interval.end;
+        if (curent.left != null && curent.left.max.compareTo(max) > 0) {
+            max = curent.left.max;
+        }
+        if (curent.right != null && curent.right.max.compareTo(max) > 0) {
+            max = curent.right.max;
+        }
+        curent.max = max;
+    }
+
+    private int balanceFactor(Node curent) {
+        return height(curent.left) - height(curent.right);
+    }
+
+    private class IntervalIterator implements Iterator<Interval<T>> {
+        private Deque<Node> nodeStack = new ArrayDeque<>();
+
+        public IntervalIterator(Node curent) {
+            pushLeft(curent);
+        }
+
+        //push the node and all of it's left children
+        private void pushLeft(Node curent) {
+            while (curent != null) {
+                nodeStack.push(curent);
+                curent = curent.left;
+            }
+        }
+
+        public boolean hasNext() {
+            return !nodeStack.isEmpty();
+        }
+
+        public Interval<T> next() {
+            if (nodeStack.isEmpty()) {
+                throw new NoSuchElementException("No more elements in the tree");
+            }
+            Node next = nodeStack.pop();
+            pushLeft(next.right);
+            return next.interval;
+        }
+    }
+
+    @Override
+    public Iterator<Interval<T>> iterator() {
+        return new IntervalIterator(root);
+    }
+
+    @Override
+    public String toString() {
+        return "IntervalTree{" +
+                "size=" + size() +
+                '}';
+    }
+
+    //closed interval, immutable
+    public static final class Interval<T extends Comparable<T>> implements Comparable<Interval<T>> {
+        private final T start;
+        private final T end;
+
+        public Interval(T start, T end) {
+            if (start == null || end == null) {
+                throw new IllegalArgumentException("Null bounds are not allowed");
+            }
+            if (start.compareTo(end) > 0) {
+                throw new IllegalArgumentException("Start is after end: " + start + " > " + end);
+            }
+            this.start = start;
+            this.end = end;
+        }
+
+        public T getStart() {
+            return start;
+        }
+
+        public T getEnd() {
+            return end;
+        }
+
+        public int compareTo(Interval<T> other) {
+            int compare = start.compareTo(other.start);
+            return (compare != 0) ? compare : end.compareTo(other.end);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass()) {
+                return false;
+            }
+            Interval<?> interval = (Interval<?>) other;
+            return start.equals(interval.start) && end.equals(interval.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * start.hashCode() + end.hashCode();
+        }
+
+        public String toString() {
+            return "[" + start + ", " + end + "]";
+        }
+    }
+
+    //interval tree node
+    private class Node {
+        private Interval<T> interval;
+        private Node left;
+        private Node right;
+        private int height;
+        private int size = 1;//nodes in this subtree, including this one
+        private T max;//largest end in this subtree
+
+        public Node(Interval<T> interval) {
+            this.interval = interval;
+            this.max = interval.end;
+        }
+
+        public String toString() {
+            String leftChild = (left == null) ? "null" : left.interval.toString();
+            String rightChild = (right == null) ? "null" : right.interval.toString();
+
+            return leftChild + " <-- " + interval + " (max=" + max + ") --> " + rightChild;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+//immutable ordered set with the BinaryTree queries (floor, ceiling, lower, higher,
+//rank, select and subTree). add() and remove() return a new version and leave this
+//one untouched. Only the O(log n) nodes on the changed path are copied, every other
+//node is shared between versions, so publishing a version to other threads is a
+//single reference write and readers never lock. Balanced as an AVL tree
+public final class PersistentTree<T extends Comparable<T>> implements Iterable<T> {
+    private static final PersistentTree<?> EMPTY = new PersistentTree<>(null);
+
+    private final Node<T> root;
+
+    private PersistentTree(Node<T> root) {
+        this.root = root;
+    }
+
+    //the empty tree holds no elements, so one instance serves every type
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<T>> PersistentTree<T> empty() {
+        return (PersistentTree<T>) EMPTY;
+    }
+
+    //basic methods, return this tree if nothing changed
+    public PersistentTree<T> add(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Null elements are not allowed");
+        }
+        Node<T> newRoot = add(element, root);
+        return (newRoot == root) ? this : new PersistentTree<>(newRoot);
+    }
+
+    public PersistentTree<T> remove(T element) {
+        Node<T> newRoot = remove(element, root);
+        return (newRoot == root) ? this : new PersistentTree<>(newRoot);
+    }
+
+    public boolean contains(T element) {
+        Node<T> curent = root;
+        while (curent != null) {
+            int compare = curent.data.compareTo(element);
+            if (compare < 0) {
+                curent = curent.right;
+            } else if (compare > 0) {
+                curent = curent.left;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public int height() {
+        return height(root);
+    }
+
+    //largest element less than or equal to the given one, or null
+    public T floor(T element) {
+        Node<T> curent = root;
+        T result = null;
+        while (curent != null) {
+            int compare = curent.data.compareTo(element);
+            if (compare == 0) {
+                return curent.data;
+            }
+            if (compare < 0) {
+                result = curent.data;//candidate, look for a larger one
+                curent = curent.right;
+            } else {
+                curent = curent.left;
+            }
+        }
+        return result;
+    }
+
+    //smallest element greater than or equal to the given one, or null
+    public T ceiling(T element) {
+        Node<T> curent = root;
+        T result = null;
+        while (curent != null) {
+            int compare = curent.data.compareTo(element);
+            if (compare == 0) {
+                return curent.data;
+            }
+            if (compare > 0) {
+                result = curent.data;//candidate, look for a smaller one
+                curent = curent.left;
+            } else {
+                curent = curent.right;
+            }
+        }
+        return result;
+    }
+
+    //largest element strictly less than the given one, or null
+    public T lower(T element) {
+        Node<T> curent = root;
+        T result = null;
+        while (curent != null) {
+            if (curent.data.compareTo(element) < 0) {
+                result = curent.data;
+                curent = curent.right;
+            } else {
+                curent = curent.left;
+            }
+        }
+        return result;
+    }
+
+    //smallest element strictly greater than the given one, or null
+    public T higher(T element) {
+        Node<T> curent = root;
+        T result = null;
+        while (curent != null) {
+            if (curent.data.compareTo(element) > 0) {
+                result = curent.data;
+                curent = curent.left;
+            } else {
+                curent = curent.right;
+            }
+        }
+        return result;
+    }
+
+    //number of elements strictly less than the given one
+    public int rank(T element) {
+        Node<T> curent = root;
+        int rank = 0;
+        while (curent != null) {
+            int compare = curent.data.compareTo(element);
+            if (compare < 0) {
+                //the node and it's whole left subtree are smaller
+                rank += size(curent.left) + 1;
+                curent = curent.right;
+            } else if (compare > 0) {
+                curent = curent.left;
+            } else {
+                return rank + size(curent.left);
+            }
+        }
+        return rank;
+    }
+
+    //k-th smallest element, counting from 0
+    public T select(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        }
+        Node<T> curent = root;
+        while (true) {
+            int leftSize = size(curent.left);
+            if (index < leftSize) {
+                curent = curent.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                curent = curent.right;
+            } else {
+                return curent.data;
+            }
+        }
+    }
+
+    //elements from "from" inclusive to "to" exclusive in order, O(height + k)
+    public Iterator<T> subTree(T from, T to) {
+        return new PersistentIterator<>(root, from, to);
+    }
+
+    private Node<T> add(T element, Node<T> curent) {
+        if (curent == null) {
+            return new Node<>(element, null, null);
+        }
+
+        int compare = curent.data.compareTo(element);
+
+        if (compare < 0) {
+            Node<T> right = add(element, curent.right);
+            return (right == curent.right) ? curent : balance(curent.data, curent.left, right);
+        } else if (compare > 0) {
+            Node<T> left = add(element, curent.left);
+            return (left == curent.left) ? curent : balance(curent.data, left, curent.right);
+        }
+        return curent;//duplicate, share the whole subtree
+    }
+
+    private Node<T> remove(T element, Node<T> curent) {
+        if (curent == null) {
+            return null;//not found
+        }
+
+        int compare = curent.data.compareTo(element);
+
+        if (compare < 0) {
+            Node<T> right = remove(element, curent.right);
+            return (right == curent.right) ? curent : balance(curent.data, curent.left, right);
+        } else if (compare > 0) {
+            Node<T> left = remove(element, curent.left);
+            return (left == curent.left) ? curent : balance(curent.data, left, curent.right);
+        }
+
+        //one or no children
+        if (curent.left == null) {
+            return curent.right;
+        }
+        if (curent.right == null) {
+            return curent.left;
+        }
+        //two childrens, the largest element of the left subtree takes this spot
+        Node<T> maxLeft = curent.left;
+        while (maxLeft.right != null) {
+            maxLeft = maxLeft.right;
+        }
+        return balance(maxLeft.data, remove(maxLeft.data, curent.left), curent.right);
+    }
+
+    //creates a node from the parts, rotating if the heights differ by more than one
+    private Node<T> balance(T data, Node<T> left, Node<T> right) {
+        int balance = height(left) - height(right);
+
+        if (balance > 1) {//left heavy
+            if (height(left.left) < height(left.right)) {
+                left = rotateLeft(left);
+            }
+            return new Node<>(left.data, left.left, new Node<>(data, left.right, right));
+        }
+        if (balance < -1) {//right heavy
+            if (height(right.right) < height(right.left)) {
+                right = rotateRight(right);
+            }
+            return new Node<>(right.data, new Node<>(data, left, right.left), right.right);
+        }
+        return new Node<>(data, left, right);
+    }
+
+    private Node<T> rotateRight(Node<T> curent) {
+        Node<T> left = curent.left;
+        return new Node<>(left.data, left.left, new Node<>(curent.data, left.right, curent.right));
+    }
+
+    private Node<T> rotateLeft(Node<T> curent) {
+        Node<T> right = curent.right;
+        return new Node<>(right.data, new Node<>(curent.data, curent.left, right.left), right.right);
+    }
+
+    private static int height(Node<?> curent) {
+        return (curent == null) ? -1 : curent.height;
+    }
+
+    private static int size(Node<?> curent) {
+        return (curent == null) ? 0 : curent.size;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new PersistentIterator<>(root, null, null);
+    }
+
+    @Override
+    public String toString() {
+        return "PersistentTree{" +
+                "size=" + size() +
+                '}';
+    }
+
+    //nodes never change, so iterating an old version is always safe. "from" is
+    //inclusive and "to" exclusive, null means no bound
+    private static class PersistentIterator<T extends Comparable<T>> implements Iterator<T> {
+        private Node<T>[] nodeStack;
+        private int depth;
+        private T to;
+
+        public PersistentIterator(Node<T> curent, T from, T to) {
+            this.to = to;
+            //an AVL tree is at most about 1.44 log2(n) high, so the stack never grows
+            @SuppressWarnings("unchecked")
+            Node<T>[] created = (Node<T>[]) new Node<?>[height(curent) + 1];
+            nodeStack = created;
+            if (from == null) {
+                pushLeft(curent);
+                return;
+            }
+            //push the path to the first element >= from, skipping smaller subtrees
+            while (curent != null) {
+                if (curent.data.compareTo(from) >= 0) {
+                    push(curent);
+                    curent = curent.left;
+                } else {
+                    curent = curent.right;
+                }
+            }
+        }
+
+        private void pushLeft(Node<T> curent) {
+            while (curent != null) {
+                push(curent);
+                curent = curent.left;
+            }
+        }
+
+        private void push(Node<T> curent) {
+            if (depth == nodeStack.length) {
+                nodeStack = Arrays.copyOf(nodeStack, depth * 2 + 1);
+            }
+            nodeStack[depth++] = curent;
+        }
+
+        public boolean hasNext() {
+            return depth > 0 && (to == null || nodeStack[depth - 1].data.compareTo(to) < 0);
+        }
+
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more elements in the tree");
+            }
+            Node<T> next = nodeStack[--depth];
+            pushLeft(next.right);
+            return next.data;
+        }
+    }
+
+    //immutable node, height and size are computed once
+    private static final class Node<T> {
+        private final T data;
+        private final Node<T> left;
+        private final Node<T> right;
+        private final int height;
+        private final int size;
+
+        public Node(T data, Node<T> left, Node<T> right) {
+            this.data = data;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+
+        public String toString() {
+            String leftChild = (left == null) ? "null" : left.data.toString();
+            String rightChild = (right == null) ? "null" : right.data.toString();
+
+            return leftChild + " <-- " + data + " --> " + rightChild;
+        }
+    }
+}
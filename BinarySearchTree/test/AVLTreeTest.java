@@ -0,0 +1,111 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+//tests for AVLTree, mostly the height bound that the rotations have to keep
+public class AVLTreeTest {
+    private AVLTree<Integer> tree;
+
+    @Before
+    public void setup() {
+        tree = new AVLTree<>();
+    }
+
+    //the tallest AVL tree with n nodes is about 1.44 log2(n) high
+    private static void assertBalanced(AVLTree<?> tree) {
+        int size = tree.size();
+        double limit = 1.4405 * Math.log(size + 2) / Math.log(2) - 0.3277;
+        Assert.assertTrue("Height " + tree.height() + " for " + size + " elements", tree.height() <= limit);
+    }
+
+    private static List<Integer> toList(Iterable<Integer> elements) {
+        List<Integer> results = new ArrayList<>();
+        for (int element : elements) {
+            results.add(element);
+        }
+        return results;
+    }
+
+    //sorted input makes a plain BinaryTree a linked list
+    @Test
+    public void sortedInsertTest() {
+        for (int i = 0; i < 10000; i++) {
+            tree.add(i);
+            if (i % 1000 == 0) {
+                assertBalanced(tree);
+            }
+        }
+        Assert.assertEquals(10000, tree.size());
+        //sorted input fills the tree level by level, as low as it can be
+        Assert.assertEquals(13, tree.height());
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertTrue(tree.contains(i));
+        }
+        Assert.assertFalse(tree.contains(10000));
+    }
+
+    @Test
+    public void duplicateTest() {
+        tree.add(5);
+        tree.add(5);
+        Assert.assertEquals(1, tree.size());
+        tree.remove(7);
+        Assert.assertEquals(1, tree.size());
+        tree.remove(5);
+        Assert.assertTrue(tree.isEmpty());
+        Assert.assertEquals(-1, tree.height());
+    }
+
+    //removals rebalance too, all the way up from the removed node
+    @Test
+    public void randomChangesTest() {
+        Random random = new Random(36);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 50000; i++) {
+            int element = random.nextInt(5000);
+            if (random.nextInt(3) > 0) {
+                tree.add(element);
+                expected.add(element);
+            } else {
+                tree.remove(element);
+                expected.remove(element);
+            }
+            if (i % 2500 == 0) {
+                assertBalanced(tree);
+                Assert.assertEquals(expected.size(), tree.size());
+            }
+        }
+        Assert.assertEquals(new ArrayList<>(expected), toList(tree));
+        Assert.assertEquals(new ArrayList<>(expected), tree.toList());
+    }
+
+    //removing the lower half of a sorted tree leaves the right side to rebalance
+    @Test
+    public void removeHalfTest() {
+        for (int i = 0; i < 4096; i++) {
+            tree.add(i);
+        }
+        for (int i = 0; i < 4000; i++) {
+            tree.remove(i);
+            assertBalanced(tree);
+        }
+        Assert.assertEquals(96, tree.size());
+        Assert.assertEquals(4000, (int) tree.iterator().next());
+    }
+
+    @Test
+    public void clearTest() {
+        tree.add(1);
+        tree.add(2);
+        tree.clear();
+        Assert.assertEquals(0, tree.size());
+        Assert.assertFalse(tree.iterator().hasNext());
+        tree.add(3);
+        Assert.assertTrue(tree.contains(3));
+    }
+}
@@ -0,0 +1,127 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+//tests for BPlusTree. A small fanout makes splits, borrows and merges happen often
+public class BPlusTreeTest {
+    private BPlusTree<Integer> tree;
+
+    @Before
+    public void setup() {
+        tree = new BPlusTree<>(4);
+    }
+
+    private static List<Integer> toList(Iterator<Integer> elements) {
+        List<Integer> results = new ArrayList<>();
+        while (elements.hasNext()) {
+            results.add(elements.next());
+        }
+        return results;
+    }
+
+    //nodes are at least half full, so with fanout 4 every leaf holds 2 keys
+    //and every internal node below the root has 2 children
+    private static void assertBalanced(BPlusTree<?> tree) {
+        int size = tree.size();
+        if (size < 2) {
+            return;
+        }
+        double limit = 1 + Math.log(size / 2.0) / Math.log(2);
+        Assert.assertTrue("Height " + tree.height() + " for " + size + " elements", tree.height() <= limit);
+    }
+
+    @Test
+    public void splitTest() {
+        for (int i = 0; i < 1000; i++) {
+            tree.add(i);
+        }
+        Assert.assertEquals(1000, tree.size());
+        assertBalanced(tree);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(tree.contains(i));
+        }
+        Assert.assertFalse(tree.contains(-1));
+        Assert.assertFalse(tree.contains(1000));
+    }
+
+    //removals borrow from or merge with a sibling, and the root shrinks when it
+    //has one child left
+    @Test
+    public void mergeTest() {
+        for (int i = 0; i < 1000; i++) {
+            tree.add(i);
+        }
+        int fullHeight = tree.height();
+        for (int i = 0; i < 995; i++) {
+            tree.remove(i);
+            assertBalanced(tree);
+        }
+        Assert.assertTrue("Tree didn't shrink", tree.height() < fullHeight);
+        Assert.assertEquals(Arrays.asList(995, 996, 997, 998, 999), toList(tree.iterator()));
+
+        for (int i = 995; i < 1000; i++) {
+            tree.remove(i);
+        }
+        Assert.assertTrue(tree.isEmpty());
+        Assert.assertEquals(-1, tree.height());
+        Assert.assertFalse(tree.iterator().hasNext());
+    }
+
+    //the leaf chain has to stay linked through every split and merge
+    @Test
+    public void randomChangesTest() {
+        Random random = new Random(40);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 40000; i++) {
+            int element = random.nextInt(3000);
+            if (random.nextInt(5) < 3) {
+                tree.add(element);
+                expected.add(element);
+            } else {
+                tree.remove(element);
+                expected.remove(element);
+            }
+            if (i % 2000 == 0) {
+                assertBalanced(tree);
+                Assert.assertEquals(new ArrayList<>(expected), toList(tree.iterator()));
+            }
+        }
+        Assert.assertEquals(expected.size(), tree.size());
+        for (int from = -10; from < 3000; from += 97) {
+            Assert.assertEquals(new ArrayList<>(expected.subSet(from, from + 150)),
+                    toList(tree.subTree(from, from + 150)));
+        }
+    }
+
+    @Test
+    public void duplicateTest() {
+        tree.add(3);
+        tree.add(3);
+        tree.remove(8);
+        Assert.assertEquals(1, tree.size());
+        Assert.assertEquals(0, tree.height());
+    }
+
+    @Test
+    public void invalidArgumentsTest() {
+        try {
+            new BPlusTree<Integer>(3);
+            Assert.fail("Didn't thrown exception for a fanout below 4");
+        } catch (IllegalArgumentException ex) {
+            //passed the test
+        }
+        try {
+            tree.add(null);
+            Assert.fail("Didn't thrown exception for a null element");
+        } catch (IllegalArgumentException ex) {
+            //passed the test
+        }
+    }
+}
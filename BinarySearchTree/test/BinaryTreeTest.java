@@ -0,0 +1,415 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+//tests for BinaryTree, checked against TreeSet where there is an equivalent
+public class BinaryTreeTest {
+    private BinaryTree<Integer> tree;
+
+    @Before
+    public void setup() {
+        tree = new BinaryTree<>();
+    }
+
+    private void addAll(int... elements) {
+        for (int element : elements) {
+            tree.add(element);
+        }
+    }
+
+    private static List<Integer> toList(Iterable<Integer> elements) {
+        List<Integer> results = new ArrayList<>();
+        for (int element : elements) {
+            results.add(element);
+        }
+        return results;
+    }
+
+    //runs the work on a thread with a small stack, so any recursion that
+    //grows with the tree depth overflows
+    private static void runWithSmallStack(Runnable work) throws InterruptedException {
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(null, () -> {
+            try {
+                work.run();
+            } catch (Throwable ex) {
+                failure[0] = ex;
+            }
+        }, "small-stack", 128 * 1024);
+        thread.start();
+        thread.join();
+        if (failure[0] != null) {
+            throw new AssertionError("Failed on a small stack: " + failure[0], failure[0]);
+        }
+    }
+
+    //sorted input makes the tree a 20k long linked list, far deeper than the
+    //recursion a 128k stack allows
+    @Test
+    public void degenerateTreeTest() throws InterruptedException {
+        int count = 20000;
+        runWithSmallStack(() -> {
+            for (int i = 0; i < count; i++) {
+                tree.add(i);
+            }
+            Assert.assertEquals(count, tree.size());
+            Assert.assertTrue(tree.contains(count - 1));
+            Assert.assertFalse(tree.contains(count));
+
+            int[] visited = new int[3];
+            tree.forEachInOrder(element -> visited[0]++);
+            tree.forEachPreOrder(element -> visited[1]++);
+            tree.forEachPostOrder(element -> visited[2]++);
+            Assert.assertArrayEquals(new int[] {count, count, count}, visited);
+
+            tree.remove(count - 1);//the deepest node
+            tree.remove(0);//the root
+            Assert.assertEquals(count - 2, tree.size());
+            Assert.assertFalse(tree.contains(count - 1));
+            Assert.assertTrue(tree.contains(count - 2));
+        });
+    }
+
+    //covers removing leaves, nodes with one child and nodes with two
+    @Test
+    public void randomChangesTest() {
+        Random random = new Random(37);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 30000; i++) {
+            int element = random.nextInt(2000);
+            if (random.nextInt(3) > 0) {
+                tree.add(element);
+                expected.add(element);
+            } else {
+                tree.remove(element);
+                expected.remove(element);
+            }
+            Assert.assertEquals(expected.contains(element), tree.contains(element));
+        }
+        Assert.assertEquals(expected.size(), tree.size());
+        Assert.assertEquals(new ArrayList<>(expected), toList(tree));
+    }
+
+    @Test
+    public void traversalOrderTest() {
+        addAll(60, 41, 74, 16, 53, 46, 55, 42);
+        List<Integer> preOrder = new ArrayList<>();
+        List<Integer> postOrder = new ArrayList<>();
+        tree.forEachPreOrder(preOrder::add);
+        tree.forEachPostOrder(postOrder::add);
+        Assert.assertEquals(Arrays.asList(60, 41, 16, 53, 46, 42, 55, 74), preOrder);
+        Assert.assertEquals(Arrays.asList(16, 42, 46, 55, 53, 41, 74, 60), postOrder);
+    }
+
+    @Test
+    public void removeRootTest() {
+        addAll(60, 41, 74, 16, 53);
+        tree.remove(60);
+        Assert.assertEquals(Arrays.asList(16, 41, 53, 74), toList(tree));
+        tree.remove(99);
+        tree.remove(60);
+        Assert.assertEquals(4, tree.size());
+        tree.remove(41);
+        tree.remove(16);
+        tree.remove(53);
+        tree.remove(74);
+        Assert.assertTrue(tree.isEmpty());
+        Assert.assertFalse(tree.iterator().hasNext());
+    }
+
+    //every query at every point, with gaps between the elements
+    @Test
+    public void navigationTest() {
+        Random random = new Random(38);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 500; i++) {
+            int element = random.nextInt(1000) * 2;
+            tree.add(element);
+            expected.add(element);
+        }
+        for (int point = -2; point <= 2002; point++) {
+            Assert.assertEquals(expected.floor(point), tree.floor(point));
+            Assert.assertEquals(expected.ceiling(point), tree.ceiling(point));
+            Assert.assertEquals(expected.lower(point), tree.lower(point));
+            Assert.assertEquals(expected.higher(point), tree.higher(point));
+            Assert.assertEquals(expected.headSet(point).size(), tree.rank(point));
+        }
+    }
+
+    //subtree sizes have to survive duplicate adds and missing removes
+    @Test
+    public void rankSelectTest() {
+        Random random = new Random(38);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 20000; i++) {
+            int element = random.nextInt(1000);
+            if (random.nextInt(3) > 0) {
+                tree.add(element);
+                expected.add(element);
+            } else {
+                tree.remove(element);
+                expected.remove(element);
+            }
+        }
+        List<Integer> sorted = new ArrayList<>(expected);
+        for (int index = 0; index < sorted.size(); index++) {
+            Assert.assertEquals(sorted.get(index), tree.select(index));
+            Assert.assertEquals(index, tree.rank(sorted.get(index)));
+        }
+        try {
+            tree.select(sorted.size());
+            Assert.fail("Didn't thrown exception for an index past the end");
+        } catch (IndexOutOfBoundsException ex) {
+            //passed the test
+        }
+        try {
+            tree.select(-1);
+            Assert.fail("Didn't thrown exception for a negative index");
+        } catch (IndexOutOfBoundsException ex) {
+            //passed the test
+        }
+    }
+
+    //"from" is inclusive and "to" exclusive
+    @Test
+    public void subTreeTest() {
+        addAll(60, 41, 74, 16, 53, 46, 55, 42);
+        Assert.assertEquals(Arrays.asList(41, 42, 46, 53), toList(() -> tree.subTree(41, 55)));
+        Assert.assertEquals(Arrays.asList(16, 41), toList(() -> tree.subTree(0, 42)));
+        Assert.assertEquals(Arrays.asList(74), toList(() -> tree.subTree(61, 100)));
+        Assert.assertTrue(toList(() -> tree.subTree(47, 53)).isEmpty());
+        Assert.assertTrue(toList(() -> tree.subTree(90, 10)).isEmpty());
+    }
+
+    private List<Integer> preOrder() {
+        List<Integer> results = new ArrayList<>();
+        tree.forEachPreOrder(results::add);
+        return results;
+    }
+
+    //the middle element becomes the root, so the pre-order shows the shape
+    @Test
+    public void fromSortedTest() {
+        Integer[] sorted = {1, 2, 3, 4, 5, 6, 7};
+        List<Integer> balanced = Arrays.asList(4, 2, 1, 3, 6, 5, 7);
+
+        tree = BinaryTree.fromSorted(sorted);
+        Assert.assertEquals(balanced, preOrder());
+        Assert.assertEquals(7, tree.size());
+
+        tree = BinaryTree.fromSorted(Arrays.asList(sorted).iterator(), 7);
+        Assert.assertEquals(balanced, preOrder());
+
+        //only count elements are read
+        tree = BinaryTree.fromSorted(Arrays.asList(sorted).iterator(), 3);
+        Assert.assertEquals(Arrays.asList(2, 1, 3), preOrder());
+
+        tree = BinaryTree.fromSorted(new Integer[0]);
+        Assert.assertTrue(tree.isEmpty());
+        try {
+            BinaryTree.fromSorted(Arrays.asList(sorted).iterator(), -1);
+            Assert.fail("Didn't thrown exception for a negative count");
+        } catch (IllegalArgumentException ex) {
+            //passed the test
+        }
+    }
+
+    //subtree sizes are set by the bulk load, so rank/select work right away
+    //and later changes keep them right
+    @Test
+    public void fromSortedSizesTest() {
+        Integer[] sorted = new Integer[1000];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i * 2;
+        }
+        tree = BinaryTree.fromSorted(sorted);
+        tree.add(7);
+        tree.remove(100);
+        TreeSet<Integer> expected = new TreeSet<>(Arrays.asList(sorted));
+        expected.add(7);
+        expected.remove(100);
+
+        List<Integer> elements = new ArrayList<>(expected);
+        for (int index = 0; index < elements.size(); index++) {
+            Assert.assertEquals(elements.get(index), tree.select(index));
+        }
+        Assert.assertEquals(elements, toList(tree));
+    }
+
+    @Test
+    public void rebalanceTest() {
+        addAll(1, 2, 3, 4, 5, 6, 7);
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7), preOrder());//a list
+        tree.rebalance();
+        Assert.assertEquals(Arrays.asList(4, 2, 1, 3, 6, 5, 7), preOrder());
+        Assert.assertEquals(7, tree.size());
+        for (int index = 0; index < 7; index++) {
+            Assert.assertEquals(index + 1, (int) tree.select(index));
+        }
+
+        tree.clear();
+        tree.rebalance();
+        Assert.assertTrue(tree.isEmpty());
+    }
+
+    //toList() used to print the subtrees instead of collecting them
+    @Test
+    public void toListTest() {
+        addAll(60, 41, 74, 16, 53, 46, 55, 42);
+        Assert.assertEquals(Arrays.asList(16, 41, 42, 46, 53, 55, 60, 74), tree.toList());
+        Assert.assertEquals(toList(tree), tree.toList());
+        Assert.assertTrue(new BinaryTree<Integer>().toList().isEmpty());
+    }
+
+    @Test
+    public void visitorTest() {
+        addAll(60, 41, 74);
+        List<Integer> inOrder = new ArrayList<>();
+        tree.forEachInOrder(inOrder::add);
+        Assert.assertEquals(Arrays.asList(41, 60, 74), inOrder);
+
+        //a visitor typed for a supertype is accepted
+        List<Object> objects = new ArrayList<>();
+        tree.forEachPreOrder(objects::add);
+        Assert.assertEquals(Arrays.<Object>asList(60, 41, 74), objects);
+
+        int[] visits = new int[1];
+        new BinaryTree<Integer>().forEachPostOrder(element -> visits[0]++);
+        Assert.assertEquals(0, visits[0]);
+    }
+
+    //same contract as Collection.toArray(T[])
+    @Test
+    public void toArrayTest() {
+        addAll(3, 1, 2);
+        Assert.assertArrayEquals(new Object[] {1, 2, 3}, tree.toArray());
+
+        Integer[] small = new Integer[1];
+        Integer[] copied = tree.toArray(small);
+        Assert.assertArrayEquals(new Integer[] {1, 2, 3}, copied);
+        Assert.assertTrue("A new array wasn't created", copied != small);
+
+        Integer[] exact = new Integer[3];
+        Assert.assertTrue("The given array wasn't used", tree.toArray(exact) == exact);
+
+        Integer[] large = {9, 9, 9, 9, 9};
+        Assert.assertTrue("The given array wasn't used", tree.toArray(large) == large);
+        Assert.assertArrayEquals(new Integer[] {1, 2, 3, null, 9}, large);
+    }
+
+    @Test
+    public void descendingIteratorTest() {
+        addAll(60, 41, 74, 16, 53, 46, 55, 42);
+        Assert.assertEquals(Arrays.asList(74, 60, 55, 53, 46, 42, 41, 16), toList(tree::descendingIterator));
+        Iterator<Integer> iterator = new BinaryTree<Integer>().descendingIterator();
+        Assert.assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            Assert.fail("Didn't thrown exception past the last element");
+        } catch (NoSuchElementException ex) {
+            //passed the test
+        }
+    }
+
+    //removing a node with two children moves another node's element into it,
+    //the iterators have to carry on from the right place in both directions
+    @Test
+    public void iteratorRemoveTest() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            tree = new BinaryTree<>();
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int i = 0; i < 100; i++) {
+                int element = random.nextInt(300);
+                tree.add(element);
+                expected.add(element);
+            }
+            boolean descending = round % 2 == 0;
+            Iterator<Integer> iterator = descending ? tree.descendingIterator() : tree.iterator();
+            Iterator<Integer> expectedIterator = descending ? expected.descendingIterator() : expected.iterator();
+            while (expectedIterator.hasNext()) {
+                Assert.assertTrue(iterator.hasNext());
+                Assert.assertEquals(expectedIterator.next(), iterator.next());
+                if (random.nextBoolean()) {
+                    iterator.remove();
+                    expectedIterator.remove();
+                }
+            }
+            Assert.assertFalse(iterator.hasNext());
+            Assert.assertEquals(expected.size(), tree.size());
+            Assert.assertEquals(new ArrayList<>(expected), toList(tree));
+        }
+    }
+
+    @Test
+    public void iteratorRemoveStateTest() {
+        addAll(2, 1, 3);
+        Iterator<Integer> iterator = tree.iterator();
+        try {
+            iterator.remove();
+            Assert.fail("Didn't thrown exception for remove() before next()");
+        } catch (IllegalStateException ex) {
+            //passed the test
+        }
+        iterator.next();
+        iterator.remove();
+        try {
+            iterator.remove();
+            Assert.fail("Didn't thrown exception for remove() twice");
+        } catch (IllegalStateException ex) {
+            //passed the test
+        }
+        Assert.assertEquals(Arrays.asList(2, 3), toList(tree));
+    }
+
+    //changes that don't go through the iterator are detected
+    @Test
+    public void concurrentModificationTest() {
+        addAll(2, 1, 3);
+        Iterator<Integer> iterator = tree.iterator();
+        iterator.next();
+        tree.add(4);
+        try {
+            iterator.next();
+            Assert.fail("Didn't thrown exception after the tree changed");
+        } catch (ConcurrentModificationException ex) {
+            //passed the test
+        }
+
+        //a duplicate add or missing remove changes nothing, so it's not a modification
+        iterator = tree.iterator();
+        iterator.next();
+        tree.add(4);
+        tree.remove(10);
+        Assert.assertEquals(2, (int) iterator.next());
+    }
+
+    //subTree() iterators are fail-fast too
+    @Test
+    public void subTreeModificationTest() {
+        addAll(5, 2, 8, 1, 3, 7, 9);
+        Iterator<Integer> range = tree.subTree(2, 8);
+        Assert.assertEquals(2, (int) range.next());
+        tree.remove(3);
+        try {
+            range.next();
+            Assert.fail("Didn't thrown exception after the tree changed");
+        } catch (ConcurrentModificationException ex) {
+            //passed the test
+        }
+
+        range = tree.subTree(2, 8);
+        range.next();
+        tree.add(5);
+        Assert.assertEquals(5, (int) range.next());
+    }
+}
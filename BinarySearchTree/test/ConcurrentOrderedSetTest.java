@@ -0,0 +1,187 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+//tests for ConcurrentOrderedSet, single threaded against TreeSet first, then
+//under contention where only the invariants of the result can be checked
+public class ConcurrentOrderedSetTest {
+    private static final int THREADS = 8;
+
+    private ConcurrentOrderedSet<Integer> set;
+
+    @Before
+    public void setup() {
+        set = new ConcurrentOrderedSet<>();
+    }
+
+    private static List<Integer> toList(Iterator<Integer> elements) {
+        List<Integer> results = new ArrayList<>();
+        while (elements.hasNext()) {
+            results.add(elements.next());
+        }
+        return results;
+    }
+
+    //runs the task on every thread at once and rethrows the first failure
+    private static void runThreads(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    task.run(thread);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+
+    @Test
+    public void singleThreadTest() {
+        Random random = new Random(43);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 20000; i++) {
+            int element = random.nextInt(1000);
+            if (random.nextInt(3) > 0) {
+                Assert.assertEquals(expected.add(element), set.add(element));
+            } else {
+                Assert.assertEquals(expected.remove(element), set.remove(element));
+            }
+            Assert.assertEquals(expected.contains(element), set.contains(element));
+        }
+        Assert.assertEquals(expected.size(), set.size());
+        Assert.assertEquals(new ArrayList<>(expected), toList(set.iterator()));
+        Assert.assertEquals(new ArrayList<>(expected.subSet(200, 300)), toList(set.subTree(200, 300)));
+    }
+
+    @Test
+    public void basicsTest() {
+        Assert.assertTrue(set.isEmpty());
+        Assert.assertFalse(set.contains(1));
+        Assert.assertFalse(set.remove(1));
+        set.add(3);
+        set.add(1);
+        set.add(2);
+        Assert.assertEquals(Arrays.asList(2, 3), toList(set.subTree(2, 10)));
+        Assert.assertTrue(toList(set.subTree(4, 10)).isEmpty());
+        set.clear();
+        Assert.assertTrue(set.isEmpty());
+        try {
+            set.add(null);
+            Assert.fail("Didn't thrown exception for a null element");
+        } catch (IllegalArgumentException ex) {
+            //passed the test
+        }
+    }
+
+    //iterators are weakly consistent, changes during iteration never throw
+    @Test
+    public void iteratorChangesTest() {
+        for (int i = 0; i < 10; i++) {
+            set.add(i);
+        }
+        List<Integer> seen = new ArrayList<>();
+        for (int element : set) {
+            seen.add(element);
+            set.remove(element);
+            if (element < 10) {
+                set.add(element + 100);//far ahead of the iterator, so it's seen
+            }
+        }
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            expected.add(i);
+        }
+        for (int i = 0; i < 10; i++) {
+            expected.add(i + 100);
+        }
+        Assert.assertEquals(expected, seen);
+        Assert.assertTrue(set.isEmpty());
+    }
+
+    //every thread adds and removes its own elements, so the result is exact
+    @Test
+    public void disjointThreadsTest() throws Exception {
+        int perThread = 5000;
+        runThreads(thread -> {
+            for (int i = 0; i < perThread; i++) {
+                Assert.assertTrue(set.add(i * THREADS + thread));
+            }
+            for (int i = 0; i < perThread; i += 2) {
+                Assert.assertTrue(set.remove(i * THREADS + thread));
+            }
+        });
+        Assert.assertEquals(THREADS * perThread / 2, set.size());
+        int previous = -1;
+        for (int element : set) {
+            Assert.assertTrue("Out of order: " + previous + ", " + element, element > previous);
+            Assert.assertEquals(1, (element / THREADS) % 2);
+            previous = element;
+        }
+    }
+
+    //all threads fight over a few elements. Each successful add and remove is
+    //counted, so every element must end up present exactly when it was added
+    //once more than it was removed. Elements that are never removed must be
+    //found by contains() the whole time
+    @Test
+    public void contendedThreadsTest() throws Exception {
+        int elements = 64;
+        AtomicIntegerArray balance = new AtomicIntegerArray(elements);
+        for (int element = elements; element < 2 * elements; element++) {
+            set.add(element);
+        }
+        runThreads(thread -> {
+            Random random = new Random(thread);
+            for (int i = 0; i < 50000; i++) {
+                int element = random.nextInt(elements);
+                int action = random.nextInt(3);
+                if (action == 0) {
+                    if (set.add(element)) {
+                        balance.incrementAndGet(element);
+                    }
+                } else if (action == 1) {
+                    if (set.remove(element)) {
+                        balance.decrementAndGet(element);
+                    }
+                } else {
+                    set.contains(element);
+                    Assert.assertTrue(set.contains(elements + element));
+                }
+            }
+        });
+
+        int present = 0;
+        for (int element = 0; element < elements; element++) {
+            int count = balance.get(element);
+            Assert.assertTrue("Element " + element + " added " + count + " times more than removed",
+                    count == 0 || count == 1);
+            Assert.assertEquals(count == 1, set.contains(element));
+            present += count;
+        }
+        Assert.assertEquals(present + elements, set.size());
+        Assert.assertEquals(present + elements, toList(set.iterator()).size());
+    }
+}
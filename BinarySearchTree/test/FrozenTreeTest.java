@@ -0,0 +1,115 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+//tests for FrozenTree. Searches recover the answer from the bits of the last slot,
+//so every size up to a few full levels is checked, not only full trees
+public class FrozenTreeTest {
+
+    private static List<Integer> toList(Iterator<Integer> iterator) {
+        List<Integer> results = new ArrayList<>();
+        while (iterator.hasNext()) {
+            results.add(iterator.next());
+        }
+        return results;
+    }
+
+    //even numbers only, so every odd probe falls between two elements
+    private static Integer[] evens(int count) {
+        Integer[] sorted = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = 2 * i;
+        }
+        return sorted;
+    }
+
+    @Test
+    public void searchTest() {
+        for (int count = 0; count <= 70; count++) {
+            Integer[] sorted = evens(count);
+            FrozenTree<Integer> tree = FrozenTree.fromSorted(sorted);
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (Integer element : sorted) {
+                expected.add(element);
+            }
+            Assert.assertEquals(count, tree.size());
+            for (int probe = -1; probe <= 2 * count; probe++) {
+                Assert.assertEquals(expected.contains(probe), tree.contains(probe));
+                Assert.assertEquals(expected.floor(probe), tree.floor(probe));
+                Assert.assertEquals(expected.ceiling(probe), tree.ceiling(probe));
+            }
+        }
+    }
+
+    @Test
+    public void iteratorTest() {
+        for (int count = 0; count <= 70; count++) {
+            Integer[] sorted = evens(count);
+            FrozenTree<Integer> tree = FrozenTree.fromSorted(sorted);
+            List<Integer> expected = new ArrayList<>();
+            for (Integer element : sorted) {
+                expected.add(element);
+            }
+            Assert.assertEquals(expected, toList(tree.iterator()));
+            for (int from = -1; from <= 2 * count; from += 3) {
+                for (int to = from; to <= 2 * count + 1; to += 5) {
+                    List<Integer> range = new ArrayList<>();
+                    for (Integer element : sorted) {
+                        if (element >= from && element < to) {
+                            range.add(element);
+                        }
+                    }
+                    Assert.assertEquals(range, toList(tree.subTree(from, to)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void emptyTest() {
+        FrozenTree<Integer> tree = FrozenTree.fromSorted(new Integer[0]);
+        Assert.assertTrue(tree.isEmpty());
+        Assert.assertFalse(tree.contains(1));
+        Assert.assertNull(tree.floor(1));
+        Assert.assertNull(tree.ceiling(1));
+        Assert.assertFalse(tree.iterator().hasNext());
+        try {
+            tree.iterator().next();
+            Assert.fail("Didn't thrown exception on an empty tree");
+        } catch (NoSuchElementException ex) {
+            //passed the test
+        }
+    }
+
+    //freeze() copies the tree, later changes to the tree don't show in the copy
+    @Test
+    public void freezeTest() {
+        Random random = new Random(46);
+        BinaryTree<Integer> tree = new BinaryTree<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 1000; i++) {
+            int element = random.nextInt(5000);
+            tree.add(element);
+            expected.add(element);
+        }
+        FrozenTree<Integer> frozen = tree.freeze();
+        Assert.assertEquals(new ArrayList<>(expected), toList(frozen.iterator()));
+
+        tree.add(-5);
+        tree.remove(expected.first());
+        Assert.assertEquals(expected.size(), frozen.size());
+        Assert.assertFalse(frozen.contains(-5));
+        Assert.assertTrue(frozen.contains(expected.first()));
+        Assert.assertTrue(tree.contains(-5));
+        for (int probe = -10; probe < 5010; probe += 7) {
+            Assert.assertEquals(expected.floor(probe), frozen.floor(probe));
+            Assert.assertEquals(expected.ceiling(probe), frozen.ceiling(probe));
+        }
+    }
+}
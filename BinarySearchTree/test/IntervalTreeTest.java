@@ -0,0 +1,137 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+//tests for IntervalTree. The queries depend on the max end kept in every node,
+//so they are checked against a brute force scan after many rotations
+public class IntervalTreeTest {
+    private IntervalTree<Integer> tree;
+
+    @Before
+    public void setup() {
+        tree = new IntervalTree<>();
+    }
+
+    private static List<IntervalTree.Interval<Integer>> toList(Iterable<IntervalTree.Interval<Integer>> intervals) {
+        List<IntervalTree.Interval<Integer>> results = new ArrayList<>();
+        for (IntervalTree.Interval<Integer> interval : intervals) {
+            results.add(interval);
+        }
+        return results;
+    }
+
+    private static List<IntervalTree.Interval<Integer>> overlapping(TreeSet<IntervalTree.Interval<Integer>> intervals,
+                                                                    int from, int to) {
+        List<IntervalTree.Interval<Integer>> results = new ArrayList<>();
+        for (IntervalTree.Interval<Integer> interval : intervals) {
+            if (interval.getStart() <= to && interval.getEnd() >= from) {
+                results.add(interval);
+            }
+        }
+        return results;
+    }
+
+    @Test
+    public void overlappingTest() {
+        tree.add(1, 3);
+        tree.add(5, 8);
+        tree.add(2, 10);
+        tree.add(12, 12);
+        Assert.assertEquals(Arrays.asList(new IntervalTree.Interval<>(2, 10), new IntervalTree.Interval<>(5, 8)),
+                tree.overlapping(4, 6));
+        Assert.assertEquals(Arrays.asList(new IntervalTree.Interval<>(1, 3), new IntervalTree.Interval<>(2, 10)),
+                tree.stabbing(3));//closed intervals, the end counts
+        Assert.assertEquals(Arrays.asList(new IntervalTree.Interval<>(12, 12)), tree.stabbing(12));
+        Assert.assertTrue(tree.overlapping(13, 20).isEmpty());
+        try {
+            tree.overlapping(6, 4);
+            Assert.fail("Didn't thrown exception for a reversed query");
+        } catch (IllegalArgumentException ex) {
+            //passed the test
+        }
+    }
+
+    //rotations have to carry the sizes and max ends along
+    @Test
+    public void randomChangesTest() {
+        Random random = new Random(45);
+        TreeSet<IntervalTree.Interval<Integer>> expected = new TreeSet<>();
+        for (int i = 0; i < 6000; i++) {
+            int start = random.nextInt(1000);
+            int end = start + random.nextInt(random.nextInt(10) == 0 ? 300 : 20);
+            if (random.nextInt(3) > 0) {
+                tree.add(start, end);
+                expected.add(new IntervalTree.Interval<>(start, end));
+            } else {
+                tree.remove(start, end);
+                expected.remove(new IntervalTree.Interval<>(start, end));
+            }
+            if (i % 300 == 0) {
+                int size = tree.size();
+                double limit = 1.4405 * Math.log(size + 2) / Math.log(2) - 0.3277;
+                Assert.assertTrue("Height " + tree.height() + " for " + size + " intervals", tree.height() <= limit);
+                for (int from = 0; from < 1300; from += 37) {
+                    Assert.assertEquals(overlapping(expected, from, from + 15), tree.overlapping(from, from + 15));
+                    Assert.assertEquals(overlapping(expected, from, from), tree.stabbing(from));
+                }
+            }
+        }
+        Assert.assertEquals(expected.size(), tree.size());
+        Assert.assertEquals(new ArrayList<>(expected), toList(tree));
+    }
+
+    @Test
+    public void rankSelectTest() {
+        Random random = new Random(45);
+        TreeSet<IntervalTree.Interval<Integer>> expected = new TreeSet<>();
+        for (int i = 0; i < 500; i++) {
+            int start = random.nextInt(300);
+            int end = start + random.nextInt(50);
+            tree.add(start, end);
+            expected.add(new IntervalTree.Interval<>(start, end));
+        }
+        List<IntervalTree.Interval<Integer>> sorted = new ArrayList<>(expected);
+        for (int index = 0; index < sorted.size(); index++) {
+            Assert.assertEquals(sorted.get(index), tree.select(index));
+        }
+        for (int point = -1; point < 302; point++) {
+            int starts = expected.headSet(new IntervalTree.Interval<>(point, point)).size();
+            Assert.assertEquals(starts, tree.rank(point));
+        }
+        try {
+            tree.select(sorted.size());
+            Assert.fail("Didn't thrown exception for an index past the end");
+        } catch (IndexOutOfBoundsException ex) {
+            //passed the test
+        }
+    }
+
+    @Test
+    public void basicsTest() {
+        tree.add(1, 2);
+        tree.add(1, 2);
+        tree.add(1, 5);
+        Assert.assertEquals(2, tree.size());
+        Assert.assertTrue(tree.contains(1, 5));
+        Assert.assertFalse(tree.contains(1, 4));
+        tree.remove(1, 4);
+        Assert.assertEquals(2, tree.size());
+        tree.remove(1, 2);
+        Assert.assertEquals(Arrays.asList(new IntervalTree.Interval<>(1, 5)), toList(tree));
+        tree.clear();
+        Assert.assertTrue(tree.isEmpty());
+        Assert.assertEquals(-1, tree.height());
+        try {
+            tree.add(5, 1);
+            Assert.fail("Didn't thrown exception for a start after the end");
+        } catch (IllegalArgumentException ex) {
+            //passed the test
+        }
+    }
+}
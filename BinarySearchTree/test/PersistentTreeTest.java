@@ -0,0 +1,129 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+//tests for PersistentTree. Every version is checked after later versions are made
+public class PersistentTreeTest {
+
+    private static List<Integer> toList(Iterator<Integer> elements) {
+        List<Integer> results = new ArrayList<>();
+        while (elements.hasNext()) {
+            results.add(elements.next());
+        }
+        return results;
+    }
+
+    //old versions keep their elements whatever happens to the newer ones
+    @Test
+    public void snapshotTest() {
+        Random random = new Random(44);
+        List<PersistentTree<Integer>> versions = new ArrayList<>();
+        List<List<Integer>> expected = new ArrayList<>();
+        PersistentTree<Integer> tree = PersistentTree.empty();
+        TreeSet<Integer> elements = new TreeSet<>();
+        for (int i = 0; i < 3000; i++) {
+            int element = random.nextInt(500);
+            if (random.nextInt(3) > 0) {
+                tree = tree.add(element);
+                elements.add(element);
+            } else {
+                tree = tree.remove(element);
+                elements.remove(element);
+            }
+            if (i % 100 == 0) {
+                versions.add(tree);
+                expected.add(new ArrayList<>(elements));
+            }
+        }
+        for (int i = 0; i < versions.size(); i++) {
+            Assert.assertEquals(expected.get(i), toList(versions.get(i).iterator()));
+            Assert.assertEquals(expected.get(i).size(), versions.get(i).size());
+        }
+    }
+
+    //an update that changes nothing returns the same version
+    @Test
+    public void noChangeTest() {
+        PersistentTree<Integer> tree = PersistentTree.<Integer>empty().add(1).add(2);
+        Assert.assertTrue(tree.add(2) == tree);
+        Assert.assertTrue(tree.remove(5) == tree);
+        Assert.assertTrue((Object) PersistentTree.<Integer>empty() == PersistentTree.<String>empty().remove("a"));
+
+        PersistentTree<Integer> removed = tree.remove(1);
+        Assert.assertTrue(tree.contains(1));
+        Assert.assertFalse(removed.contains(1));
+        Assert.assertTrue(removed.remove(2).isEmpty());
+        try {
+            tree.add(null);
+            Assert.fail("Didn't thrown exception for a null element");
+        } catch (IllegalArgumentException ex) {
+            //passed the test
+        }
+    }
+
+    //same AVL bound as AVLTree, sorted input included
+    @Test
+    public void balanceTest() {
+        PersistentTree<Integer> tree = PersistentTree.empty();
+        for (int i = 0; i < 10000; i++) {
+            tree = tree.add(i);
+        }
+        for (int i = 0; i < 9000; i += 2) {
+            tree = tree.remove(i);
+        }
+        int size = tree.size();
+        Assert.assertEquals(5500, size);
+        double limit = 1.4405 * Math.log(size + 2) / Math.log(2) - 0.3277;
+        Assert.assertTrue("Height " + tree.height() + " for " + size + " elements", tree.height() <= limit);
+    }
+
+    @Test
+    public void queriesTest() {
+        Random random = new Random(44);
+        PersistentTree<Integer> tree = PersistentTree.empty();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 400; i++) {
+            int element = random.nextInt(1000) * 2;
+            tree = tree.add(element);
+            expected.add(element);
+        }
+        for (int point = -2; point <= 2002; point++) {
+            Assert.assertEquals(expected.floor(point), tree.floor(point));
+            Assert.assertEquals(expected.ceiling(point), tree.ceiling(point));
+            Assert.assertEquals(expected.lower(point), tree.lower(point));
+            Assert.assertEquals(expected.higher(point), tree.higher(point));
+            Assert.assertEquals(expected.headSet(point).size(), tree.rank(point));
+        }
+        List<Integer> sorted = new ArrayList<>(expected);
+        for (int index = 0; index < sorted.size(); index++) {
+            Assert.assertEquals(sorted.get(index), tree.select(index));
+        }
+        try {
+            tree.select(sorted.size());
+            Assert.fail("Didn't thrown exception for an index past the end");
+        } catch (IndexOutOfBoundsException ex) {
+            //passed the test
+        }
+        for (int from = -10; from < 2000; from += 111) {
+            Assert.assertEquals(new ArrayList<>(expected.subSet(from, from + 300)),
+                    toList(tree.subTree(from, from + 300)));
+        }
+    }
+
+    @Test
+    public void emptyTest() {
+        PersistentTree<Integer> tree = PersistentTree.empty();
+        Assert.assertTrue(tree.isEmpty());
+        Assert.assertEquals(-1, tree.height());
+        Assert.assertNull(tree.floor(1));
+        Assert.assertEquals(0, tree.rank(1));
+        Assert.assertFalse(tree.iterator().hasNext());
+        Assert.assertEquals(Arrays.asList(1), toList(tree.add(1).subTree(0, 2)));
+    }
+}
@@ -0,0 +1,83 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of elements with their cached long keys, used by the integer
+ * priority queues.
+ *
+ * @author Alex Krytskyi
+ * @version 1.0
+ *
+ * @param <T>
+ */
+class Bucket<T>
+{
+    private static final int INITIAL_SIZE = 4;
+
+    private Object[] elements = new Object[INITIAL_SIZE];
+    private long[] keys = new long[INITIAL_SIZE];
+    private int size = 0;
+
+    void add(T element, long key)
+    {
+        if(size == elements.length)
+        {
+            elements = Arrays.copyOf(elements, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        elements[size] = element;
+        keys[size] = key;
+        size++;
+    }
+
+    T element(int index)
+    {
+        return (T) elements[index];
+    }
+
+    long key(int index)
+    {
+        return keys[index];
+    }
+
+    //removes the last element, order inside a bucket doesn't matter
+    T removeLast()
+    {
+        size--;
+        T element = (T) elements[size];
+        elements[size] = null;
+        return element;
+    }
+
+    //index of the element with the smallest key, the bucket must not be empty
+    int minIndex()
+    {
+        int minIndex = 0;
+        for (int i = 1; i < size; i++)
+        {
+            if(keys[i] < keys[minIndex])
+            {
+                minIndex = i;
+            }
+        }
+        return minIndex;
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    //forgets all elements but keeps the arrays for reuse
+    void clear()
+    {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,149 @@
+package structures;
+
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+/**
+ * A monotone priority queue for small integer key ranges (Dial's buckets). Keys of
+ * inserted elements must be at least the key of the last deleted element and less
+ * than that key plus the range. Elements sit in a circular array of range buckets,
+ * so insert is O(1) and deleteMin scans at most range buckets.
+ *
+ * @author Alex Krytskyi
+ * @version 1.0
+ *
+ * @param <T>
+ */
+public class BucketQueue<T>
+{
+    private final ToLongFunction<? super T> keyExtractor;
+    private final Bucket<T>[] buckets;
+    private long lastKey = 0;
+    private int size = 0;
+
+    /**
+     * Instantiates a new Bucket queue.
+     * @param keyExtractor function that returns the non-negative priority of the element
+     * @param range int maximum difference between any key in the queue and the last deleted key, plus one
+     */
+    public BucketQueue(ToLongFunction<? super T> keyExtractor, int range)
+    {
+        if(keyExtractor == null)
+        {
+            throw new IllegalArgumentException("Key extractor can't be null");
+        }
+        if(range < 1)
+        {
+            throw new IllegalArgumentException("Range must be positive: " + range);
+        }
+        this.keyExtractor = keyExtractor;
+        this.buckets = (Bucket<T>[]) new Bucket[range];
+        for (int i = 0; i < range; i++)
+        {
+            buckets[i] = new Bucket<>();
+        }
+    }
+
+    /**
+     * Inserts element to the queue
+     * @param element T new element
+     * @throws IllegalArgumentException if the key is outside of the current key range
+     */
+    public void insert(T element)
+    {
+        long key = keyExtractor.applyAsLong(element);
+        if(key < lastKey || key - lastKey >= buckets.length)
+        {
+            throw new IllegalArgumentException("Key " + key + " is outside of range [" + lastKey +
+                    ", " + (lastKey + buckets.length) + ")");
+        }
+        buckets[bucketIndex(key)].add(element, key);
+        size++;
+    }
+
+    /**
+     * Deletes an element with the smallest key
+     * @return T element with the smallest key
+     */
+    public T deleteMin()
+    {
+        if(isEmpty())
+        {
+            throw new NoSuchElementException("The queue is empty!");
+        }
+        lastKey = minKey();
+        size--;
+        return buckets[bucketIndex(lastKey)].removeLast();
+    }
+
+    /**
+     * Returns an element with the smallest key without deleting it
+     * @return T element with the smallest key
+     */
+    public T peek()
+    {
+        if(isEmpty())
+        {
+            throw new NoSuchElementException("The queue is empty");
+        }
+        Bucket<T> bucket = buckets[bucketIndex(minKey())];
+        return bucket.element(bucket.size() - 1);
+    }
+
+    /**
+     * Returns the size of the queue
+     * @return int size of queue
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * checks is the queue empty or not
+     * @return boolean returns empty or not.
+     */
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /**
+     * Resets the queue, keys start from 0 again
+     */
+    public void clear()
+    {
+        for (Bucket<T> bucket : buckets)
+        {
+            bucket.clear();
+        }
+        this.size = 0;
+        this.lastKey = 0;
+    }
+
+    //scans forward from the last deleted key, the queue must not be empty
+    private long minKey()
+    {
+        long key = lastKey;
+        while (buckets[bucketIndex(key)].isEmpty())
+        {
+            key++;
+        }
+        return key;
+    }
+
+    private int bucketIndex(long key)
+    {
+        return (int) (key % buckets.length);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BucketQueue{" +
+                "range=" + buckets.length +
+                ", lastKey=" + lastKey +
+                ", size=" + size +
+                '}';
+    }
+}
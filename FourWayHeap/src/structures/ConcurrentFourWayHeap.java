@@ -0,0 +1,371 @@
+package structures;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe priority queue made of several FourWayHeap shards (a MultiQueue).
+ * Every insert goes to a random shard, every delete takes the smaller of the minimums
+ * of two random shards. Threads rarely contend on the same lock, so throughput grows
+ * with the amount of threads.
+ *
+ * Ordering is relaxed: poll() returns one of the smallest elements in the queue,
+ * not necessarily the smallest one.
+ *
+ * @author Alex Krytskyi
+ * @version 1.0
+ *
+ * @param <T>
+ */
+public class ConcurrentFourWayHeap<T>
+{
+    private static final int SHARDS_PER_THREAD = 2;
+
+    private final Shard<T>[] shards;
+    private final Comparator<? super T> comparator;
+    private final AtomicInteger size = new AtomicInteger();
+
+    //blocked consumers wait here until an element is inserted
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition notEmpty = waitLock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    /**
+     * Creates a concurrent heap ordered by the natural ordering of the elements.
+     * @param <T> type of the elements
+     * @return ConcurrentFourWayHeap new empty heap
+     */
+    public static <T extends Comparable<? super T>> ConcurrentFourWayHeap<T> naturalOrder()
+    {
+        return new ConcurrentFourWayHeap<>(defaultShardCount(), Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * Instantiates a new concurrent heap ordered by the given comparator.
+     * @param comparator Comparator used to order the elements
+     */
+    public ConcurrentFourWayHeap(Comparator<? super T> comparator)
+    {
+        this(defaultShardCount(), comparator);
+    }
+
+    /**
+     * Instantiates a new concurrent heap ordered by the given comparator.
+     * @param shardCount int amount of heaps the elements are spread over
+     * @param comparator Comparator used to order the elements
+     */
+    public ConcurrentFourWayHeap(int shardCount, Comparator<? super T> comparator)
+    {
+        if(shardCount < 1)
+        {
+            throw new IllegalArgumentException("At least one shard is required: " + shardCount);
+        }
+        if(comparator == null)
+        {
+            throw new IllegalArgumentException("Comparator can't be null");
+        }
+        this.comparator = comparator;
+        this.shards = (Shard<T>[]) new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++)
+        {
+            shards[i] = new Shard<>(new FourWayHeap<T>(comparator));
+        }
+    }
+
+    /**
+     * Instantiates a new concurrent heap ordered by a long key extracted from every
+     * element. Shards cache the keys, see FourWayHeap(ToLongFunction)
+     * @param keyExtractor function that returns the priority of the element
+     */
+    public ConcurrentFourWayHeap(ToLongFunction<? super T> keyExtractor)
+    {
+        if(keyExtractor == null)
+        {
+            throw new IllegalArgumentException("Key extractor can't be null");
+        }
+        this.comparator = Comparator.comparingLong(keyExtractor);
+        this.shards = (Shard<T>[]) new Shard[defaultShardCount()];
+        for (int i = 0; i < shards.length; i++)
+        {
+            shards[i] = new Shard<>(new FourWayHeap<T>(keyExtractor));
+        }
+    }
+
+    private static int defaultShardCount()
+    {
+        return Runtime.getRuntime().availableProcessors() * SHARDS_PER_THREAD;
+    }
+
+    /**
+     * Inserts element to a random shard and wakes up a waiting consumer
+     * @param element T new element
+     */
+    public void insert(T element)
+    {
+        if(element == null)
+        {
+            throw new IllegalArgumentException("Null elements are not allowed");
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true)
+        {
+            Shard<T> shard = shards[random.nextInt(shards.length)];
+            //skip busy shards instead of waiting for them
+            if(shard.lock.tryLock())
+            {
+                try
+                {
+                    shard.heap.insert(element);
+                    //count it before updateTop() publishes it, or a racing poll()
+                    //could decrement first and size() would go negative
+                    size.incrementAndGet();
+                    shard.updateTop();
+                }
+                finally
+                {
+                    shard.lock.unlock();
+                }
+                break;
+            }
+        }
+
+        if(waiters.get() > 0)
+        {
+            waitLock.lock();
+            try
+            {
+                notEmpty.signal();
+            }
+            finally
+            {
+                waitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Deletes one of the smallest elements without waiting
+     * @return T element, or null if the heap is empty
+     */
+    public T poll()
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        //a few rounds of the two random choices, then fall back to a full scan
+        for (int attempt = 0; attempt < shards.length && size.get() > 0; attempt++)
+        {
+            Shard<T> first = shards[random.nextInt(shards.length)];
+            Shard<T> second = shards[random.nextInt(shards.length)];
+            Shard<T> best = better(first, second);
+            if(best != null && best.lock.tryLock())
+            {
+                try
+                {
+                    if(!best.heap.isEmpty())
+                    {
+                        return removeMin(best);
+                    }
+                }
+                finally
+                {
+                    best.lock.unlock();
+                }
+            }
+        }
+        return pollAny();
+    }
+
+    /**
+     * Deletes one of the smallest elements, waiting for an element if the heap is empty
+     * @return T element
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public T take() throws InterruptedException
+    {
+        while (true)
+        {
+            T element = poll();
+            if(element != null)
+            {
+                return element;
+            }
+            waitLock.lockInterruptibly();
+            waiters.incrementAndGet();
+            try
+            {
+                while (size.get() == 0)
+                {
+                    notEmpty.await();
+                }
+            }
+            finally
+            {
+                waiters.decrementAndGet();
+                waitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Deletes one of the smallest elements, waiting up to the given time for an element
+     * if the heap is empty
+     * @param timeout long how long to wait
+     * @param unit TimeUnit of the timeout
+     * @return T element, or null if the time ran out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long nanos = unit.toNanos(timeout);
+        while (true)
+        {
+            T element = poll();
+            if(element != null)
+            {
+                return element;
+            }
+            if(nanos <= 0)
+            {
+                return null;
+            }
+            waitLock.lockInterruptibly();
+            waiters.incrementAndGet();
+            try
+            {
+                while (size.get() == 0 && nanos > 0)
+                {
+                    nanos = notEmpty.awaitNanos(nanos);
+                }
+            }
+            finally
+            {
+                waiters.decrementAndGet();
+                waitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns one of the smallest elements without deleting it
+     * @return T element
+     */
+    public T peek()
+    {
+        T best = null;
+        for (Shard<T> shard : shards)
+        {
+            T top = shard.top;
+            if(top != null && (best == null || comparator.compare(top, best) < 0))
+            {
+                best = top;
+            }
+        }
+        if(best == null)
+        {
+            throw new NoSuchElementException("The heap is empty");
+        }
+        return best;
+    }
+
+    /**
+     * Returns the size of the heap
+     * @return int size of heap
+     */
+    public int size()
+    {
+        return size.get();
+    }
+
+    /**
+     * checks is the heap empty or not
+     * @return boolean returns empty or not.
+     */
+    public boolean isEmpty()
+    {
+        return size.get() == 0;
+    }
+
+    //returns the shard with the smaller top, or null if both are empty
+    private Shard<T> better(Shard<T> first, Shard<T> second)
+    {
+        T firstTop = first.top;
+        T secondTop = second.top;
+        if(firstTop == null)
+        {
+            return secondTop == null ? null : second;
+        }
+        if(secondTop == null)
+        {
+            return first;
+        }
+        return comparator.compare(firstTop, secondTop) <= 0 ? first : second;
+    }
+
+    //visits every shard, used when random picks keep missing the few non-empty shards
+    private T pollAny()
+    {
+        for (Shard<T> shard : shards)
+        {
+            if(shard.top == null)
+            {
+                continue;
+            }
+            shard.lock.lock();
+            try
+            {
+                if(!shard.heap.isEmpty())
+                {
+                    return removeMin(shard);
+                }
+            }
+            finally
+            {
+                shard.lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    //the caller must hold the lock of the shard
+    private T removeMin(Shard<T> shard)
+    {
+        T element = shard.heap.deleteMin();
+        shard.updateTop();
+        size.decrementAndGet();
+        return element;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ConcurrentFourWayHeap{" +
+                "shards=" + shards.length +
+                ", size=" + size +
+                '}';
+    }
+
+    //one heap with it's own lock
+    private static class Shard<T>
+    {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final FourWayHeap<T> heap;
+        //minimum of the heap, readable without the lock
+        private volatile T top;
+
+        Shard(FourWayHeap<T> heap)
+        {
+            this.heap = heap;
+        }
+
+        //the caller must hold the lock
+        void updateTop()
+        {
+            top = heap.isEmpty() ? null : heap.peek();
+        }
+    }
+}
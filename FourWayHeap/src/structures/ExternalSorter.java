@@ -0,0 +1,400 @@
+package structures;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Sorts inputs that don't fit in memory. The input is cut into runs of runSize
+ * elements, every run is sorted in memory and spilled to a temporary file, then
+ * the runs are read back through buffered streams and merged with KWayMerge.
+ * At most maxFanIn runs are open at once: when there are more, consecutive groups
+ * are merged into longer runs first, pass by pass. The sort is stable
+ *
+ * @author Alex Krytskyi
+ * @version 1.0
+ *
+ * @param <T>
+ */
+public class ExternalSorter<T>
+{
+    private static final int DEFAULT_RUN_SIZE = 1 << 20;
+    private static final int DEFAULT_MAX_FAN_IN = 64;
+    //first size of the run buffer, it doubles up to runSize while a run is read
+    private static final int INITIAL_RUN_CAPACITY = 1 << 10;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Comparator<? super T> comparator;
+    private final Codec<T> codec;
+    private final int runSize;
+    private final int maxFanIn;
+    private final Path tempDirectory;
+
+    /**
+     * Writes and reads elements of run files.
+     * @param <T> type of the elements
+     */
+    public interface Codec<T>
+    {
+        /**
+         * Writes one element
+         * @param out DataOutput to write to
+         * @param element T element to write
+         * @throws IOException if writing fails
+         */
+        void write(DataOutput out, T element) throws IOException;
+
+        /**
+         * Reads one element written by write()
+         * @param in DataInput to read from
+         * @return T element
+         * @throws IOException if reading fails
+         */
+        T read(DataInput in) throws IOException;
+    }
+
+    /**
+     * Instantiates a new sorter with the default run size, spilling to the default
+     * temporary directory
+     * @param comparator Comparator used to order the elements
+     * @param codec Codec used to write runs to files
+     */
+    public ExternalSorter(Comparator<? super T> comparator, Codec<T> codec)
+    {
+        this(comparator, codec, DEFAULT_RUN_SIZE, null);
+    }
+
+    /**
+     * Instantiates a new sorter with the default maximum fan in.
+     * @param comparator Comparator used to order the elements
+     * @param codec Codec used to write runs to files
+     * @param runSize int amount of elements sorted in memory at once
+     * @param tempDirectory Path for run files, or null for the default temporary directory
+     */
+    public ExternalSorter(Comparator<? super T> comparator, Codec<T> codec, int runSize, Path tempDirectory)
+    {
+        this(comparator, codec, runSize, DEFAULT_MAX_FAN_IN, tempDirectory);
+    }
+
+    /**
+     * Instantiates a new sorter.
+     * @param comparator Comparator used to order the elements
+     * @param codec Codec used to write runs to files
+     * @param runSize int amount of elements sorted in memory at once
+     * @param maxFanIn int amount of run files merged at once, each holds an open file
+     *                 and a read buffer
+     * @param tempDirectory Path for run files, or null for the default temporary directory
+     */
+    public ExternalSorter(Comparator<? super T> comparator, Codec<T> codec, int runSize, int maxFanIn,
+                          Path tempDirectory)
+    {
+        if(comparator == null || codec == null)
+        {
+            throw new IllegalArgumentException("Comparator and codec can't be null");
+        }
+        if(runSize < 1)
+        {
+            throw new IllegalArgumentException("Run size must be positive: " + runSize);
+        }
+        if(maxFanIn < 2)
+        {
+            throw new IllegalArgumentException("At least two runs must be merged at once: " + maxFanIn);
+        }
+        this.comparator = comparator;
+        this.codec = codec;
+        this.runSize = runSize;
+        this.maxFanIn = maxFanIn;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Sorts all elements of the input and passes them in sorted order to the output.
+     * Temporary run files are deleted before the method returns, also when it fails.
+     * Exceptions of the input and the output reach the caller unchanged
+     * @param input Iterator over the elements to sort
+     * @param output Consumer that receives the sorted elements
+     * @throws IOException if run files can't be written or read
+     */
+    public void sort(Iterator<? extends T> input, Consumer<? super T> output) throws IOException
+    {
+        //every run file that still exists, deleted in the end
+        List<Path> tempFiles = new ArrayList<>();
+        List<RunReader<T>> readers = new ArrayList<>();
+        Throwable failure = null;
+        try
+        {
+            List<Path> runFiles = new ArrayList<>();
+            List<Long> runLengths = new ArrayList<>();
+            @SuppressWarnings("unchecked")
+            T[] run = (T[]) new Object[Math.min(runSize, INITIAL_RUN_CAPACITY)];
+            while (true)
+            {
+                int length = 0;
+                while (length < runSize && input.hasNext())
+                {
+                    if(length == run.length)
+                    {
+                        run = Arrays.copyOf(run, (int) Math.min(runSize, 2L * length));
+                    }
+                    run[length++] = input.next();
+                }
+                Arrays.sort(run, 0, length, comparator);
+
+                //everything fits in one run, no need to touch the disk
+                if(runFiles.isEmpty() && !input.hasNext())
+                {
+                    for (int i = 0; i < length; i++)
+                    {
+                        output.accept(run[i]);
+                    }
+                    return;
+                }
+                Path runFile = createRunFile(tempFiles);
+                spill(runFile, run, length);
+                runFiles.add(runFile);
+                runLengths.add((long) length);
+                if(!input.hasNext())
+                {
+                    break;
+                }
+            }
+            run = null;
+
+            //merge consecutive groups, so equal elements keep the order of their runs
+            while (runFiles.size() > maxFanIn)
+            {
+                List<Path> mergedFiles = new ArrayList<>();
+                List<Long> mergedLengths = new ArrayList<>();
+                for (int first = 0; first < runFiles.size(); first += maxFanIn)
+                {
+                    int last = Math.min(first + maxFanIn, runFiles.size());
+                    long length = 0;
+                    for (int i = first; i < last; i++)
+                    {
+                        readers.add(new RunReader<>(runFiles.get(i), runLengths.get(i), codec));
+                        length += runLengths.get(i);
+                    }
+                    Path runFile = createRunFile(tempFiles);
+                    writeRun(runFile, KWayMerge.merge(readers, comparator));
+                    mergedFiles.add(runFile);
+                    mergedLengths.add(length);
+                    closeReaders(readers);
+                    for (int i = first; i < last; i++)
+                    {
+                        Files.delete(runFiles.get(i));
+                        tempFiles.remove(runFiles.get(i));
+                    }
+                }
+                runFiles = mergedFiles;
+                runLengths = mergedLengths;
+            }
+
+            for (int i = 0; i < runFiles.size(); i++)
+            {
+                readers.add(new RunReader<>(runFiles.get(i), runLengths.get(i), codec));
+            }
+            Iterator<T> merged = KWayMerge.merge(readers, comparator);
+            while (merged.hasNext())
+            {
+                output.accept(merged.next());
+            }
+        }
+        catch (RunIOException ex)
+        {
+            //only the run readers wrap, an UncheckedIOException of the caller passes through
+            failure = ex.getCause();
+            throw ex.getCause();
+        }
+        catch (Throwable ex)
+        {
+            failure = ex;
+            throw ex;
+        }
+        finally
+        {
+            cleanUp(readers, tempFiles, failure);
+        }
+    }
+
+    //closes every reader and deletes every file even if some of it fails. Errors are
+    //added to the failure that is already thrown, or thrown if there is none
+    private static <T> void cleanUp(List<RunReader<T>> readers, List<Path> tempFiles, Throwable failure)
+            throws IOException
+    {
+        IOException error = null;
+        for (RunReader<T> reader : readers)
+        {
+            try
+            {
+                reader.close();
+            }
+            catch (IOException ex)
+            {
+                error = addError(error, ex);
+            }
+        }
+        for (Path tempFile : tempFiles)
+        {
+            try
+            {
+                Files.deleteIfExists(tempFile);
+            }
+            catch (IOException ex)
+            {
+                error = addError(error, ex);
+            }
+        }
+        if(error == null)
+        {
+            return;
+        }
+        if(failure != null)
+        {
+            failure.addSuppressed(error);
+            return;
+        }
+        throw error;
+    }
+
+    private static IOException addError(IOException error, IOException ex)
+    {
+        if(error == null)
+        {
+            return ex;
+        }
+        error.addSuppressed(ex);
+        return error;
+    }
+
+    //closes the readers of a finished merge, the list is left empty
+    private static <T> void closeReaders(List<RunReader<T>> readers) throws IOException
+    {
+        try
+        {
+            for (RunReader<T> reader : readers)
+            {
+                reader.close();
+            }
+        }
+        finally
+        {
+            readers.clear();
+        }
+    }
+
+    //new empty run file, remembered in tempFiles before anything is written to it
+    private Path createRunFile(List<Path> tempFiles) throws IOException
+    {
+        Path runFile = tempDirectory == null ? Files.createTempFile("run", ".tmp")
+                : Files.createTempFile(tempDirectory, "run", ".tmp");
+        tempFiles.add(runFile);
+        return runFile;
+    }
+
+    //writes a sorted run from memory
+    private void spill(Path runFile, T[] run, int length) throws IOException
+    {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(runFile), BUFFER_SIZE)))
+        {
+            for (int i = 0; i < length; i++)
+            {
+                codec.write(out, run[i]);
+                //let the element be collected, it lives in the file now
+                run[i] = null;
+            }
+        }
+    }
+
+    //writes a merge of other runs
+    private void writeRun(Path runFile, Iterator<T> elements) throws IOException
+    {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(runFile), BUFFER_SIZE)))
+        {
+            while (elements.hasNext())
+            {
+                codec.write(out, elements.next());
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ExternalSorter{" +
+                "runSize=" + runSize +
+                ", maxFanIn=" + maxFanIn +
+                ", tempDirectory=" + tempDirectory +
+                '}';
+    }
+
+    //reads a run file back element by element
+    private static class RunReader<T> implements Iterator<T>
+    {
+        private final DataInputStream in;
+        private final Codec<T> codec;
+        private long remaining;
+
+        RunReader(Path runFile, long length, Codec<T> codec) throws IOException
+        {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(runFile), BUFFER_SIZE));
+            this.codec = codec;
+            this.remaining = length;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return remaining > 0;
+        }
+
+        @Override
+        public T next()
+        {
+            if(remaining == 0)
+            {
+                throw new NoSuchElementException("The run is exhausted");
+            }
+            try
+            {
+                remaining--;
+                return codec.read(in);
+            }
+            catch (IOException ex)
+            {
+                throw new RunIOException(ex);
+            }
+        }
+
+        void close() throws IOException
+        {
+            in.close();
+        }
+    }
+
+    //marks read errors of the run files, so sort() doesn't unwrap the caller's own
+    private static class RunIOException extends UncheckedIOException
+    {
+        private static final long serialVersionUID = 1L;
+
+        RunIOException(IOException cause)
+        {
+            super(cause);
+        }
+    }
+}
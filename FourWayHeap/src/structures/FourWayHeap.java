@@ -1,78 +1,519 @@
 package structures;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
 
 /**
+ * A 4-ary min heap. Elements are ordered by their natural ordering, by a
+ * comparator, or by a primitive long key extracted from each element.
+ *
  * @author Alex Krytskyi
  * @version 1.0
  *
  * @param <T>
  */
-public class FourWayHeap <T extends Comparable<T>>
+public class FourWayHeap<T> implements Iterable<T>
 {
     private static final int INITIAL_SIZE = 10;
+    //the array shrinks by half once less than a quarter of it is used
+    private static final int SHRINK_FACTOR = 4;
 
     private T[] binaryHeap;
     private int size = 0;
     private int heapWidth = 4;
     private  int nextIndex = 0; //start at index 0
 
+    //ordering, at most one of them is set. Natural ordering when both are null
+    private Comparator<? super T> comparator;
+    private ToLongFunction<? super T> keyExtractor;
+    //keys[i] caches keyExtractor(binaryHeap[i]), only used with a key extractor
+    private long[] keys;
+    //bounded heaps keep only the greatest maxSize elements
+    private int maxSize = Integer.MAX_VALUE;
+    private int modCount = 0;
 
     /**
-     * Instantiates a new Four way heap.
+     * Instantiates a new Four way heap ordered by the natural ordering of the
+     * elements. Elements must implement Comparable, non comparable elements are
+     * rejected with a ClassCastException when they are inserted.
+     * @deprecated the element type is not checked by the compiler, use naturalOrder()
      */
+    @Deprecated
     public FourWayHeap()
     {
         //use a default size for the complete binary tree
-        binaryHeap = (T[]) new Comparable[INITIAL_SIZE];
+        binaryHeap = (T[]) new Object[INITIAL_SIZE];
     }
 
     /**
-     * Constructor that take an array of elements and build a heap based of them
-     * @param initialElements Array initial elements for the heap
+     * Instantiates a new Four way heap ordered by the given comparator.
+     * @param comparator Comparator used to order the elements
      */
+    public FourWayHeap(Comparator<? super T> comparator)
+    {
+        this();
+        if(comparator == null)
+        {
+            throw new IllegalArgumentException("Comparator can't be null");
+        }
+        this.comparator = comparator;
+    }
+
+    /**
+     * Instantiates a new Four way heap ordered by a long key extracted from every
+     * element. The key is extracted once on insertion and cached next to the element,
+     * so the heap compares primitives instead of calling compareTo()
+     * @param keyExtractor function that returns the priority of the element
+     */
+    public FourWayHeap(ToLongFunction<? super T> keyExtractor)
+    {
+        this();
+        if(keyExtractor == null)
+        {
+            throw new IllegalArgumentException("Key extractor can't be null");
+        }
+        this.keyExtractor = keyExtractor;
+        this.keys = new long[INITIAL_SIZE];
+    }
+
+    /**
+     * Constructor that take an array of elements and build a heap based of them,
+     * ordered by the natural ordering of the elements
+     * @param initialElements Array initial elements for the heap, all must
+     *                        implement Comparable or a ClassCastException is thrown
+     * @deprecated the element type is not checked by the compiler, use naturalOrder(T[])
+     */
+    @Deprecated
     public FourWayHeap(T[] initialElements)
     {
+        for (T element : initialElements)
+        {
+            checkComparable(element);
+        }
         //copy over all element from the inout array to a new array
-        binaryHeap = (T[]) new Comparable[initialElements.length + 1];
+        binaryHeap = (T[]) new Object[initialElements.length + 1];
 
         System.arraycopy(initialElements, 0, binaryHeap, 0, initialElements.length);
         //housekeeping
         size = initialElements.length;
-        nextIndex = size + 1;
+        nextIndex = size;
 
         //build heap operation - O(n)
         buildHeap();
     }
 
     /**
-     * Inserts element to the binary heap
+     * Constructor that take an array of elements and build a heap based of them,
+     * ordered by the given comparator
+     * @param initialElements Array initial elements for the heap
+     * @param comparator Comparator used to order the elements
+     */
+    public FourWayHeap(T[] initialElements, Comparator<? super T> comparator)
+    {
+        if(comparator == null)
+        {
+            throw new IllegalArgumentException("Comparator can't be null");
+        }
+        this.comparator = comparator;
+
+        binaryHeap = (T[]) new Object[initialElements.length + 1];
+        System.arraycopy(initialElements, 0, binaryHeap, 0, initialElements.length);
+        size = initialElements.length;
+        nextIndex = size;
+
+        buildHeap();
+    }
+
+    /**
+     * Creates a heap ordered by the natural ordering of the elements
+     * @param <T> type of the elements
+     * @return FourWayHeap new empty heap
+     */
+    public static <T extends Comparable<? super T>> FourWayHeap<T> naturalOrder()
+    {
+        return new FourWayHeap<>();
+    }
+
+    /**
+     * Creates a heap of the elements of the array, ordered by their natural ordering.
+     * The heap is built bottom-up in O(n)
+     * @param initialElements Array initial elements for the heap
+     * @param <T> type of the elements
+     * @return FourWayHeap new heap
+     */
+    public static <T extends Comparable<? super T>> FourWayHeap<T> naturalOrder(T[] initialElements)
+    {
+        return new FourWayHeap<>(initialElements);
+    }
+
+    /**
+     * Creates a bounded heap that keeps only the maxSize greatest elements by natural
+     * ordering. The root is the smallest element kept, so once the heap is full an
+     * element that is not greater than the root is rejected with a single comparison
+     * @param maxSize int maximum amount of elements to keep
+     * @param <T> type of the elements
+     * @return FourWayHeap new bounded heap
+     */
+    public static <T extends Comparable<? super T>> FourWayHeap<T> bounded(int maxSize)
+    {
+        FourWayHeap<T> heap = naturalOrder();
+        heap.setMaxSize(maxSize);
+        return heap;
+    }
+
+    /**
+     * Creates a bounded heap that keeps only the maxSize greatest elements by the
+     * comparator. Pass a reversed comparator to keep the smallest elements instead
+     * @param maxSize int maximum amount of elements to keep
+     * @param comparator Comparator used to order the elements
+     * @param <T> type of the elements
+     * @return FourWayHeap new bounded heap
+     */
+    public static <T> FourWayHeap<T> bounded(int maxSize, Comparator<? super T> comparator)
+    {
+        FourWayHeap<T> heap = new FourWayHeap<>(comparator);
+        heap.setMaxSize(maxSize);
+        return heap;
+    }
+
+    /**
+     * Creates a bounded heap that keeps only the maxSize elements with the greatest
+     * keys. A rejected element costs one key extraction and one long comparison
+     * @param maxSize int maximum amount of elements to keep
+     * @param keyExtractor function that returns the priority of the element
+     * @param <T> type of the elements
+     * @return FourWayHeap new bounded heap
+     */
+    public static <T> FourWayHeap<T> bounded(int maxSize, ToLongFunction<? super T> keyExtractor)
+    {
+        FourWayHeap<T> heap = new FourWayHeap<>(keyExtractor);
+        heap.setMaxSize(maxSize);
+        return heap;
+    }
+
+    //wraps the array without copying it, used by heapSort()
+    private FourWayHeap(T[] elements, int size, Comparator<? super T> comparator)
+    {
+        this.binaryHeap = elements;
+        this.comparator = comparator;
+        this.size = size;
+        this.nextIndex = size;
+    }
+
+    /**
+     * Sorts the array in place in ascending natural order. O(n log n) time and no
+     * extra memory, using the same sink logic as the heap
+     * @param array T[] array to sort
+     * @param <T> type of the elements
+     */
+    public static <T extends Comparable<? super T>> void heapSort(T[] array)
+    {
+        heapSort0(array, Collections.reverseOrder());
+    }
+
+    /**
+     * Sorts the array in place in ascending order of the comparator. O(n log n)
+     * time and no extra memory, using the same sink logic as the heap
+     * @param array T[] array to sort
+     * @param comparator Comparator used to order the elements
+     * @param <T> type of the elements
+     */
+    public static <T> void heapSort(T[] array, Comparator<? super T> comparator)
+    {
+        heapSort0(array, Collections.reverseOrder(comparator));
+    }
+
+    //sorts in ascending order with a max heap, the reversed comparator is applied by the caller
+    private static <T> void heapSort0(T[] array, Comparator<? super T> reversed)
+    {
+        FourWayHeap<T> heap = new FourWayHeap<>(array, array.length, reversed);
+        heap.buildHeap();
+        //move the max to the end of the array and shrink the heap
+        while (heap.size > 1)
+        {
+            heap.swap(0, heap.size - 1);
+            heap.size--;
+            heap.sink(0);
+        }
+    }
+
+    private void setMaxSize(int maxSize)
+    {
+        if(maxSize < 1)
+        {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the maximum amount of elements the heap keeps
+     * @return int maximum size, Integer.MAX_VALUE if the heap is not bounded
+     */
+    public int maxSize()
+    {
+        return this.maxSize;
+    }
+
+    /**
+     * Offers element to the heap. An unbounded heap or a heap that is not full
+     * always accepts it. A full bounded heap replaces the root with the element
+     * if the element is greater than the root, otherwise rejects it
+     * @param element T new element
+     * @return boolean true if the element was kept
+     */
+    public boolean offer(T element)
+    {
+        if(size < maxSize)
+        {
+            insert(element);
+            return true;
+        }
+        //the heap is full, compare with the smallest kept element only
+        if(keys != null)
+        {
+            long key = keyExtractor.applyAsLong(element);
+            if(key <= keys[0])
+            {
+                return false;
+            }
+            keys[0] = key;
+        }
+        else if(compareToRoot(element) <= 0)
+        {
+            return false;
+        }
+        binaryHeap[0] = element;
+        sink(0);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Inserts element to the binary heap. A full bounded heap keeps the element
+     * only if it is greater than the root, see offer()
      * @param element T new element
      */
     public void insert(T element)
     {
+        if(size >= maxSize)
+        {
+            offer(element);
+            return;
+        }
         //have we run out of space in our internal array?
         if(nextIndex == binaryHeap.length-1)
         {
             resize();//make some more room in our array
         }
+        checkComparable(element);
         //place the element at the end of the complete binary tree
         //tree and percolate up
         binaryHeap[nextIndex] = element;
+        if(keys != null)
+        {
+            keys[nextIndex] = keyExtractor.applyAsLong(element);
+        }
         swim(nextIndex);
 
         //moe to the next index and increment size
         nextIndex++;
         size++;
+        modCount++;
+    }
+
+    /**
+     * Inserts all elements of the collection to the heap. The backing array grows
+     * at most once. Small batches are swum in one by one, large batches are
+     * appended and the whole heap is rebuilt bottom-up in O(n). If an element is
+     * rejected, none of the elements are inserted. A bounded heap offers the
+     * elements one by one, so the ones before a rejected element stay
+     * @param elements Collection of new elements
+     */
+    public void insertAll(Collection<? extends T> elements)
+    {
+        if(maxSize != Integer.MAX_VALUE)
+        {
+            for (T element : elements)
+            {
+                offer(element);
+            }
+            return;
+        }
+        ensureCapacity(size + elements.size());
+        appendAll(elements);
+    }
+
+    /**
+     * Inserts all elements of the array to the heap. The backing array grows
+     * at most once. Small batches are swum in one by one, large batches are
+     * appended and the whole heap is rebuilt bottom-up in O(n). If an element is
+     * rejected, none of the elements are inserted. A bounded heap offers the
+     * elements one by one, so the ones before a rejected element stay
+     * @param elements Array of new elements
+     */
+    public void insertAll(T[] elements)
+    {
+        if(maxSize != Integer.MAX_VALUE)
+        {
+            for (T element : elements)
+            {
+                offer(element);
+            }
+            return;
+        }
+        ensureCapacity(size + elements.length);
+        appendAll(Arrays.asList(elements));
+    }
+
+    /**
+     * Adds all elements of another heap to this heap. The other heap is not changed.
+     * Elements are ordered by the ordering of this heap, if one of them is rejected
+     * none are added
+     * @param other FourWayHeap to take elements from
+     */
+    public void meld(FourWayHeap<? extends T> other)
+    {
+        if(other == this)
+        {
+            throw new IllegalArgumentException("Can't meld a heap with itself");
+        }
+        if(maxSize != Integer.MAX_VALUE)
+        {
+            for (int i = 0; i < other.size; i++)
+            {
+                offer(other.binaryHeap[i]);
+            }
+            return;
+        }
+        ensureCapacity(size + other.size);
+        appendAll(Arrays.asList(other.binaryHeap).subList(0, other.size));
+    }
+
+    //appends the elements and restores heap order. All or nothing: when an element
+    //is rejected, the ones appended before it are taken out again
+    private void appendAll(Iterable<? extends T> elements)
+    {
+        int start = size;
+        boolean appended = false;
+        try
+        {
+            for (T element : elements)
+            {
+                append(element);
+            }
+            appended = true;
+        }
+        finally
+        {
+            if(!appended)
+            {
+                truncate(start);
+            }
+        }
+        restoreHeap(start);
+    }
+
+    //places an element at the end of the array without restoring heap order.
+    //Nothing is stored if the element is rejected
+    private void append(T element)
+    {
+        checkComparable(element);
+        if(keys != null)
+        {
+            keys[nextIndex] = keyExtractor.applyAsLong(element);
+        }
+        binaryHeap[nextIndex] = element;
+        nextIndex++;
+        size++;
+        modCount++;
+    }
+
+    //drops the elements appended after the given size
+    private void truncate(int newSize)
+    {
+        Arrays.fill(binaryHeap, newSize, size, null);
+        size = newSize;
+        nextIndex = newSize;
+    }
+
+    //restores heap order after elements were appended starting at the given index
+    private void restoreHeap(int start)
+    {
+        int added = size - start;
+        //swimming costs about log4(size) per new element, rebuilding costs about size
+        int height = (31 - Integer.numberOfLeadingZeros(Math.max(size, 1))) / 2 + 1;
+        if((long) added * height >= size)
+        {
+            buildHeap();
+        }
+        else
+        {
+            for (int i = start; i < size; i++)
+            {
+                swim(i);
+            }
+        }
+    }
+
+    //makes sure the array can hold the given amount of elements plus a free slot
+    private void ensureCapacity(int capacity)
+    {
+        if(capacity >= binaryHeap.length - 1)
+        {
+            resize(Math.max(binaryHeap.length * 2, capacity + 1));
+        }
+    }
+
+    /**
+     * Shrinks the backing array to the current amount of elements
+     */
+    public void trimToSize()
+    {
+        if(binaryHeap.length > size + 1)
+        {
+            resize(size + 1);
+        }
+    }
+
+    /**
+     * Returns the length of the backing array
+     * @return int capacity of the heap
+     */
+    public int capacity()
+    {
+        return binaryHeap.length;
     }
 
     private void resize()
     {
-        T[] newBinaryHeap = (T[])new Comparable[binaryHeap.length * 2];
+        resize(binaryHeap.length * 2);
+    }
+
+    private void resize(int capacity)
+    {
+        //a bounded heap never needs more than maxSize elements plus a free slot
+        if(maxSize != Integer.MAX_VALUE)
+        {
+            capacity = Math.min(capacity, maxSize + 1);
+        }
+        T[] newBinaryHeap = (T[])new Object[capacity];
 
         //copy element to a new heap
-        System.arraycopy(binaryHeap, 0, newBinaryHeap, 0, binaryHeap.length);
+        System.arraycopy(binaryHeap, 0, newBinaryHeap, 0, size);
         this.binaryHeap = newBinaryHeap;
+
+        if(keys != null)
+        {
+            this.keys = Arrays.copyOf(keys, newBinaryHeap.length);
+        }
     }
 
     /**
@@ -86,18 +527,221 @@ public class FourWayHeap <T extends Comparable<T>>
         {
             throw new NoSuchElementException("The heap is empty!");
         }
+        return removeMin();
+    }
+
+    /**
+     * Deletes up to k smallest elements from the heap and stores them in ascending
+     * order at the start of the out array. Cheaper than k calls to deleteMin(): the
+     * heap is resized and marked as modified once for the whole batch, and every
+     * element is removed with fewer comparisons and moves, see pollBatched()
+     * If the comparator throws, the elements already stored in out stay deleted and
+     * the heap keeps the rest
+     * @param k int maximum number of elements to delete
+     * @param out T[] array to store deleted elements in, must hold at least k elements
+     * @return int number of deleted elements
+     */
+    public int deleteMin(int k, T[] out)
+    {
+        if(k < 0)
+        {
+            throw new IllegalArgumentException("Negative amount of elements: " + k);
+        }
+        if(out.length < k)
+        {
+            throw new IllegalArgumentException("Output array is smaller than " + k);
+        }
+        int count = Math.min(k, size);
+        try
+        {
+            for (int i = 0; i < count; i++)
+            {
+                out[i] = pollBatched();
+            }
+        }
+        finally
+        {
+            //a failing compare() still leaves a consistent heap
+            finishBatch(count);
+        }
+        return count;
+    }
+
+    /**
+     * Deletes up to max smallest elements from the heap and adds them in ascending
+     * order to the collection. Same batching as deleteMin(int, T[])
+     * @param target Collection to add deleted elements to
+     * @param max int maximum number of elements to delete
+     * @return int number of deleted elements
+     */
+    public int drainTo(Collection<? super T> target, int max)
+    {
+        if(max < 0)
+        {
+            throw new IllegalArgumentException("Negative amount of elements: " + max);
+        }
+        int count = Math.min(max, size);
+        try
+        {
+            for (int i = 0; i < count; i++)
+            {
+                target.add(pollBatched());
+            }
+        }
+        finally
+        {
+            //a failing add() still leaves a consistent heap
+            finishBatch(count);
+        }
+        return count;
+    }
+
+    /**
+     * Replaces the minimum element with a new element and sinks it to it's spot.
+     * Cheaper than deleteMin() followed by insert(). Passing the current minimum
+     * again restores heap order after it's priority has grown
+     * @param element T new element
+     * @return T previous minimum element
+     */
+    public T replaceMin(T element)
+    {
+        if(isEmpty())
+        {
+            throw new NoSuchElementException("The heap is empty!");
+        }
+        T min = binaryHeap[0];
+        binaryHeap[0] = element;
+        if(keys != null)
+        {
+            keys[0] = keyExtractor.applyAsLong(element);
+        }
+        sink(0);
+        modCount++;
+        return min;
+    }
+
+    //removes the root, the heap must not be empty
+    private T removeMin()
+    {
         T element = binaryHeap[0];
         //move the last element in the heap(size)to the first spot
         swap(0, this.size-1);
         //alter our indices and size
         this.size--;
         this.nextIndex--;
+        this.modCount++;
+        //let the removed element be collected
+        binaryHeap[size] = null;
 
         //sink element to the correct position
         sink(0);
+
+        shrinkIfSparse();
         return element;
     }
 
+    //shrinking at a quarter and growing when full keeps a burst of inserts and
+    //deletes around one size from resizing every time. Halves as often as needed,
+    //but copies the array once
+    private void shrinkIfSparse()
+    {
+        int capacity = binaryHeap.length;
+        while (capacity > INITIAL_SIZE && size < capacity / SHRINK_FACTOR)
+        {
+            capacity = Math.max(capacity / 2, INITIAL_SIZE);
+        }
+        if(capacity != binaryHeap.length)
+        {
+            resize(capacity);
+        }
+    }
+
+    //deletes the minimum for a batch, the caller calls finishBatch() afterwards.
+    //Instead of sinking the last element from the root, the hole at the root walks
+    //down along the smallest children to a leaf and the last element is dropped in
+    //there and swum up. The last element almost always belongs near the bottom, so
+    //this saves the comparison with it on every level and moves instead of swaps
+    private T pollBatched()
+    {
+        T element = binaryHeap[0];
+        long elementKey = (keys != null) ? keys[0] : 0;
+        size--;
+        nextIndex--;
+        T last = binaryHeap[size];
+        long lastKey = (keys != null) ? keys[size] : 0;
+        binaryHeap[size] = null;
+        if(size == 0)
+        {
+            return element;
+        }
+
+        int hole = 0;
+        boolean walked = false;
+        try
+        {
+            while (hole * this.heapWidth + 1 < size)
+            {
+                int child = getIndexToCheck(hole);
+                binaryHeap[hole] = binaryHeap[child];
+                if(keys != null)
+                {
+                    keys[hole] = keys[child];
+                }
+                hole = child;
+            }
+            walked = true;
+        }
+        finally
+        {
+            if(!walked)
+            {
+                //compare() threw: move the path back down and put both elements back
+                undoPoll(hole, element, elementKey, last, lastKey);
+            }
+        }
+        binaryHeap[hole] = last;
+        if(keys != null)
+        {
+            keys[hole] = lastKey;
+        }
+        swim(hole);
+        return element;
+    }
+
+    //restores the heap from before pollBatched() when the walk down stopped at hole
+    private void undoPoll(int hole, T element, long elementKey, T last, long lastKey)
+    {
+        while (hole > 0)
+        {
+            int parentIndex = (hole - 1) / this.heapWidth;
+            binaryHeap[hole] = binaryHeap[parentIndex];
+            if(keys != null)
+            {
+                keys[hole] = keys[parentIndex];
+            }
+            hole = parentIndex;
+        }
+        binaryHeap[0] = element;
+        binaryHeap[size] = last;
+        if(keys != null)
+        {
+            keys[0] = elementKey;
+            keys[size] = lastKey;
+        }
+        size++;
+        nextIndex++;
+    }
+
+    //bookkeeping for a batch of count deletions, done once
+    private void finishBatch(int count)
+    {
+        if(count > 0)
+        {
+            modCount++;
+            shrinkIfSparse();
+        }
+    }
+
     private void swim(int index)
     {
         while (index > 0)
@@ -105,10 +749,11 @@ public class FourWayHeap <T extends Comparable<T>>
             int parentIndex = (index - 1) / this.heapWidth;
 
             //check whether the parent and child node are out of rder
-            if(binaryHeap[index].compareTo(binaryHeap[parentIndex]) < 0)
+            if(compare(index, parentIndex) >= 0)
             {
-                swap(index, parentIndex);
+                break; //heap order is satisfied above this point
             }
+            swap(index, parentIndex);
             //move up to the parent and do the same thing
             index = parentIndex;
         }
@@ -120,11 +765,10 @@ public class FourWayHeap <T extends Comparable<T>>
         //the last node with a child node is index at size / m
         while (index <= size / this.heapWidth)
         {
-            int[] children = getChildrenIndicies(index);
-            int indexToCheck = getIndexToCheck(children);
+            int indexToCheck = getIndexToCheck(index);
 
             //is the parent smaller than the smallest child
-            if(indexToCheck < this.size && binaryHeap[indexToCheck].compareTo(binaryHeap[index]) < 0)
+            if(indexToCheck < this.size && compare(indexToCheck, index) < 0)
             {
                 swap(indexToCheck, index);
                 //move to that child node and do the same
@@ -137,24 +781,17 @@ public class FourWayHeap <T extends Comparable<T>>
         }
     }
 
-    private int[] getChildrenIndicies(int index)
-    {
-        int childrenIndecies[] = new int[this.heapWidth];
-        for (int i = 1; i <= this.heapWidth ; i++)
-        {
-            childrenIndecies[i-1] = index * this.heapWidth + i;
-        }
-        return childrenIndecies;
-    }
-
-    private int getIndexToCheck(int[] children)
+    //returns index of the smallest child of the node
+    private int getIndexToCheck(int index)
     {
-        int smallestIndex = children[0];
-        for (int i = 0; i < children.length; i++)
+        int firstChild = index * this.heapWidth + 1;
+        int lastChild = Math.min(firstChild + this.heapWidth, size);
+        int smallestIndex = firstChild;
+        for (int i = firstChild + 1; i < lastChild; i++)
         {
-            if(children[i] < size && binaryHeap[children[i]].compareTo(binaryHeap[smallestIndex]) < 0)
+            if(compare(i, smallestIndex) < 0)
             {
-                smallestIndex = children[i];
+                smallestIndex = i;
             }
         }
 
@@ -171,12 +808,53 @@ public class FourWayHeap <T extends Comparable<T>>
         }
     }
 
+    //compares elements stored at two indexes of the array
+    private int compare(int first, int second)
+    {
+        if(keys != null)
+        {
+            return Long.compare(keys[first], keys[second]);
+        }
+        if(comparator != null)
+        {
+            return comparator.compare(binaryHeap[first], binaryHeap[second]);
+        }
+        return ((Comparable<? super T>) binaryHeap[first]).compareTo(binaryHeap[second]);
+    }
+
+    //fails on insertion instead of on some later comparison when a heap without
+    //a comparator or key extractor gets an element that is not Comparable
+    private void checkComparable(T element)
+    {
+        if(comparator == null && keyExtractor == null && !(element instanceof Comparable))
+        {
+            throw new ClassCastException("Element is not Comparable and the heap has no comparator: " + element);
+        }
+    }
+
+    //compares an element that is not in the heap with the root
+    private int compareToRoot(T element)
+    {
+        if(comparator != null)
+        {
+            return comparator.compare(element, binaryHeap[0]);
+        }
+        return ((Comparable<? super T>) element).compareTo(binaryHeap[0]);
+    }
+
     //swaps two elements in the array
     private void swap(int first, int second)
     {
         T temp = binaryHeap[first];
         binaryHeap[first] = binaryHeap[second];
         binaryHeap[second] = temp;
+
+        if(keys != null)
+        {
+            long tempKey = keys[first];
+            keys[first] = keys[second];
+            keys[second] = tempKey;
+        }
     }
 
 
@@ -187,7 +865,12 @@ public class FourWayHeap <T extends Comparable<T>>
     {
         this.size = 0;
         this.nextIndex = 0;
-        this.binaryHeap = (T[]) new Comparable[INITIAL_SIZE];
+        this.modCount++;
+        this.binaryHeap = (T[]) new Object[INITIAL_SIZE];
+        if(keys != null)
+        {
+            this.keys = new long[INITIAL_SIZE];
+        }
     }
 
     /**
@@ -203,6 +886,79 @@ public class FourWayHeap <T extends Comparable<T>>
         return binaryHeap[0];
     }
 
+    /**
+     * Returns up to k smallest elements in ascending order without changing the heap.
+     * Runs in O(k log k) regardless of the size of the heap
+     * @param k int maximum number of elements to return
+     * @return List of the smallest elements
+     */
+    public List<T> peek(int k)
+    {
+        if(k < 0)
+        {
+            throw new IllegalArgumentException("Negative amount of elements: " + k);
+        }
+        int count = Math.min(k, size);
+        List<T> results = new ArrayList<>(count);
+        IndexHeap candidates = new IndexHeap(count * (this.heapWidth - 1) + 1);
+        if(count > 0)
+        {
+            candidates.add(0);
+        }
+        while (results.size() < count)
+        {
+            int index = candidates.removeMin();
+            results.add(binaryHeap[index]);
+            candidates.addChildren(index);
+        }
+        return results;
+    }
+
+    /**
+     * Returns an iterator over the elements in no particular order. The iterator
+     * reads the backing array directly and fails fast if the heap is changed
+     * @return Iterator over the elements
+     */
+    @Override
+    public Iterator<T> iterator()
+    {
+        return new HeapIterator();
+    }
+
+    /**
+     * Returns an iterator over the elements in ascending order without changing the
+     * heap. Reading the first k elements costs O(k log k)
+     * @return Iterator over the elements in sorted order
+     */
+    public Iterator<T> sortedIterator()
+    {
+        return new SortedHeapIterator();
+    }
+
+    /**
+     * Returns a copy of the elements in no particular order
+     * @return Object[] array of elements
+     */
+    public Object[] toArray()
+    {
+        return Arrays.copyOf(binaryHeap, size, Object[].class);
+    }
+
+    /**
+     * Returns the elements in ascending order, the heap is not changed
+     * @return Object[] array of sorted elements
+     */
+    public Object[] toSortedArray()
+    {
+        Object[] results = new Object[size];
+        Iterator<T> sorted = sortedIterator();
+        for (int i = 0; i < results.length; i++)
+        {
+            results[i] = sorted.next();
+        }
+        return results;
+    }
+
     /**
      *
      * @param element T element to search for
@@ -238,6 +994,147 @@ public class FourWayHeap <T extends Comparable<T>>
         return this.size == 0;
     }
 
+    //walks the backing array in index order
+    private class HeapIterator implements Iterator<T>
+    {
+        private int position = 0;
+        private int savedModCount = modCount;
+
+        @Override
+        public boolean hasNext()
+        {
+            checkForModification(savedModCount);
+            return position < size;
+        }
+
+        @Override
+        public T next()
+        {
+            if(!hasNext())
+            {
+                throw new NoSuchElementException("No more elements in the heap");
+            }
+            return binaryHeap[position++];
+        }
+    }
+
+    //walks the heap in sorted order through a small heap of candidate indexes
+    private class SortedHeapIterator implements Iterator<T>
+    {
+        private IndexHeap candidates = new IndexHeap(INITIAL_SIZE);
+        private int savedModCount = modCount;
+
+        SortedHeapIterator()
+        {
+            if(size > 0)
+            {
+                candidates.add(0);
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            checkForModification(savedModCount);
+            return !candidates.isEmpty();
+        }
+
+        @Override
+        public T next()
+        {
+            if(!hasNext())
+            {
+                throw new NoSuchElementException("No more elements in the heap");
+            }
+            int index = candidates.removeMin();
+            //the children of the reported node are the only new candidates
+            candidates.addChildren(index);
+            return binaryHeap[index];
+        }
+    }
+
+    private void checkForModification(int savedModCount)
+    {
+        if(savedModCount != modCount)
+        {
+            throw new ConcurrentModificationException("The heap was changed during iteration");
+        }
+    }
+
+    //a small binary heap of indexes into binaryHeap, ordered by the elements at those
+    //indexes. Used to walk the heap in sorted order without changing it
+    private class IndexHeap
+    {
+        private int[] indexes;
+        private int count;
+
+        IndexHeap(int capacity)
+        {
+            indexes = new int[Math.max(capacity, 1)];
+        }
+
+        //adds all existing children of a node of the four way heap
+        void addChildren(int index)
+        {
+            int firstChild = index * heapWidth + 1;
+            int lastChild = Math.min(firstChild + heapWidth, size);
+            for (int i = firstChild; i < lastChild; i++)
+            {
+                add(i);
+            }
+        }
+
+        void add(int index)
+        {
+            if(count == indexes.length)
+            {
+                indexes = Arrays.copyOf(indexes, count * 2);
+            }
+            int position = count++;
+            //percolate up
+            while (position > 0)
+            {
+                int parent = (position - 1) / 2;
+                if(compare(index, indexes[parent]) >= 0)
+                {
+                    break;
+                }
+                indexes[position] = indexes[parent];
+                position = parent;
+            }
+            indexes[position] = index;
+        }
+
+        int removeMin()
+        {
+            int result = indexes[0];
+            int last = indexes[--count];
+            int position = 0;
+            //percolate down
+            while (position * 2 + 1 < count)
+            {
+                int child = position * 2 + 1;
+                if(child + 1 < count && compare(indexes[child + 1], indexes[child]) < 0)
+                {
+                    child++;
+                }
+                if(compare(last, indexes[child]) <= 0)
+                {
+                    break;
+                }
+                indexes[position] = indexes[child];
+                position = child;
+            }
+            indexes[position] = last;
+            return result;
+        }
+
+        boolean isEmpty()
+        {
+            return count == 0;
+        }
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,124 @@
+package structures;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Merges already sorted iterators into one sorted iterator. The head of every
+ * source is kept in a FourWayHeap, so each element costs O(log k) for k sources.
+ *
+ * @author Alex Krytskyi
+ * @version 1.0
+ */
+public final class KWayMerge
+{
+    private KWayMerge()
+    {
+
+    }
+
+    /**
+     * Merges sources sorted by natural ordering
+     * @param sources List of sorted iterators
+     * @param <T> type of the elements
+     * @return Iterator over all elements in sorted order
+     */
+    public static <T extends Comparable<? super T>> Iterator<T> merge(List<? extends Iterator<? extends T>> sources)
+    {
+        return merge(sources, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * Merges sources sorted by the comparator. Equal elements come out in the
+     * order of their sources in the list
+     * @param sources List of sorted iterators
+     * @param comparator Comparator the sources are sorted by
+     * @param <T> type of the elements
+     * @return Iterator over all elements in sorted order
+     */
+    public static <T> Iterator<T> merge(List<? extends Iterator<? extends T>> sources,
+                                        Comparator<? super T> comparator)
+    {
+        return new MergeIterator<>(sources, comparator);
+    }
+
+    private static class MergeIterator<T> implements Iterator<T>
+    {
+        private final FourWayHeap<Cursor<T>> cursors;
+
+        MergeIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> comparator)
+        {
+            //order cursors by their heads, ties by source position to keep the merge stable
+            Comparator<Cursor<T>> byHead = (first, second) -> {
+                int compare = comparator.compare(first.head, second.head);
+                return compare != 0 ? compare : Integer.compare(first.source, second.source);
+            };
+            cursors = new FourWayHeap<>(byHead);
+
+            for (int i = 0; i < sources.size(); i++)
+            {
+                Iterator<? extends T> source = sources.get(i);
+                if(source.hasNext())
+                {
+                    cursors.insert(new Cursor<>(source, i));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return !cursors.isEmpty();
+        }
+
+        @Override
+        public T next()
+        {
+            if(cursors.isEmpty())
+            {
+                throw new NoSuchElementException("No more elements to merge");
+            }
+            Cursor<T> cursor = cursors.peek();
+            T element = cursor.head;
+            if(cursor.advance())
+            {
+                //the head grew, sink the same cursor back to it's spot
+                cursors.replaceMin(cursor);
+            }
+            else
+            {
+                cursors.deleteMin();
+            }
+            return element;
+        }
+    }
+
+    //current element of a source iterator
+    private static class Cursor<T>
+    {
+        private final Iterator<? extends T> iterator;
+        private final int source;
+        private T head;
+
+        Cursor(Iterator<? extends T> iterator, int source)
+        {
+            this.iterator = iterator;
+            this.source = source;
+            this.head = iterator.next();
+        }
+
+        //moves to the next element, returns false when the source is exhausted
+        boolean advance()
+        {
+            if(iterator.hasNext())
+            {
+                head = iterator.next();
+                return true;
+            }
+            head = null;
+            return false;
+        }
+    }
+}
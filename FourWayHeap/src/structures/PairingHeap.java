@@ -0,0 +1,275 @@
+package structures;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A pairing heap, a pointer based min heap that melds two heaps in O(1). insert
+ * and meld are O(1), deleteMin is O(log n) amortized and decreaseKey is o(log n)
+ * amortized.
+ *
+ * @author Alex Krytskyi
+ * @version 1.0
+ *
+ * @param <T>
+ */
+public class PairingHeap<T>
+{
+    private Node<T> root;
+    private int size = 0;
+    private final Comparator<? super T> comparator;
+    //reused by deleteMin() to pair up the children of the old root
+    private List<Node<T>> pairs = new ArrayList<>();
+
+    /**
+     * Instantiates a new Pairing heap ordered by the given comparator.
+     * @param comparator Comparator used to order the elements
+     */
+    public PairingHeap(Comparator<? super T> comparator)
+    {
+        if(comparator == null)
+        {
+            throw new IllegalArgumentException("Comparator can't be null");
+        }
+        this.comparator = comparator;
+    }
+
+    /**
+     * Creates a heap ordered by the natural ordering of the elements
+     * @param <T> type of the elements
+     * @return PairingHeap new empty heap
+     */
+    public static <T extends Comparable<? super T>> PairingHeap<T> naturalOrder()
+    {
+        return new PairingHeap<>(Comparator.naturalOrder());
+    }
+
+    /**
+     * Inserts element to the heap
+     * @param element T new element
+     * @return Node handle of the element, used by decreaseKey()
+     */
+    public Node<T> insert(T element)
+    {
+        Node<T> node = new Node<>(element);
+        root = link(root, node);
+        size++;
+        return node;
+    }
+
+    /**
+     * Deletes an element from the heap
+     * @return T element in minHeap
+     */
+    public T deleteMin()
+    {
+        if(isEmpty())
+        {
+            throw new NoSuchElementException("The heap is empty!");
+        }
+        Node<T> min = root;
+        root = combineSiblings(min.child);
+        if(root != null)
+        {
+            root.previous = null;
+        }
+        size--;
+
+        min.child = null;
+        return min.element;
+    }
+
+    /**
+     * Returns the minimum element in the heap. If heap is empty, throws new Exception
+     * @return T element
+     */
+    public T peek()
+    {
+        if(isEmpty())
+        {
+            throw new NoSuchElementException("The heap is empty");
+        }
+        return root.element;
+    }
+
+    /**
+     * Moves all elements of the other heap to this heap in O(1). The other heap
+     * becomes empty, handles of it's elements now belong to this heap
+     * @param other PairingHeap to take elements from, must have the same ordering
+     */
+    public void meld(PairingHeap<T> other)
+    {
+        if(other == this)
+        {
+            throw new IllegalArgumentException("Can't meld a heap with itself");
+        }
+        root = link(root, other.root);
+        size += other.size;
+        other.root = null;
+        other.size = 0;
+    }
+
+    /**
+     * Replaces the element of a node with a smaller or equal element
+     * @param node Node handle returned by insert(), must still be in this heap
+     * @param element T new element, not greater than the current one
+     */
+    public void decreaseKey(Node<T> node, T element)
+    {
+        if(compare(element, node.element) > 0)
+        {
+            throw new IllegalArgumentException("New element is greater than the current one");
+        }
+        node.element = element;
+        if(node == root)
+        {
+            return;
+        }
+        //cut the node with it's subtree and link it back with the root
+        if(node.previous.child == node)
+        {
+            node.previous.child = node.next;
+        }
+        else
+        {
+            node.previous.next = node.next;
+        }
+        if(node.next != null)
+        {
+            node.next.previous = node.previous;
+        }
+        node.next = null;
+        node.previous = null;
+        root = link(root, node);
+    }
+
+    /**
+     * Returns the size of the heap
+     * @return int size of heap
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * checks is the heap empty or not
+     * @return boolean returns empty or not.
+     */
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /**
+     * Resets the heap
+     */
+    public void clear()
+    {
+        root = null;
+        size = 0;
+    }
+
+    //makes the larger root the leftmost child of the smaller root
+    private Node<T> link(Node<T> first, Node<T> second)
+    {
+        if(first == null)
+        {
+            return second;
+        }
+        if(second == null)
+        {
+            return first;
+        }
+        if(compare(second.element, first.element) < 0)
+        {
+            Node<T> temp = first;
+            first = second;
+            second = temp;
+        }
+        second.previous = first;
+        second.next = first.child;
+        if(first.child != null)
+        {
+            first.child.previous = second;
+        }
+        first.child = second;
+        first.next = null;
+        return first;
+    }
+
+    //two pass pairing: link siblings in pairs left to right, then fold right to left
+    private Node<T> combineSiblings(Node<T> first)
+    {
+        if(first == null)
+        {
+            return null;
+        }
+        pairs.clear();
+        while (first != null)
+        {
+            Node<T> second = first.next;
+            Node<T> rest = second == null ? null : second.next;
+            first.next = null;
+            first.previous = null;
+            if(second != null)
+            {
+                second.next = null;
+                second.previous = null;
+            }
+            pairs.add(link(first, second));
+            first = rest;
+        }
+
+        Node<T> result = pairs.get(pairs.size() - 1);
+        for (int i = pairs.size() - 2; i >= 0; i--)
+        {
+            result = link(pairs.get(i), result);
+        }
+        pairs.clear();
+        return result;
+    }
+
+    private int compare(T first, T second)
+    {
+        return comparator.compare(first, second);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PairingHeap{" +
+                "root=" + (root == null ? "null" : root.element) +
+                ", size=" + size +
+                '}';
+    }
+
+    /**
+     * A node of the heap, returned by insert() as a handle for decreaseKey().
+     * @param <T> type of the element
+     */
+    public static class Node<T>
+    {
+        private T element;
+        private Node<T> child;
+        private Node<T> next;
+        //parent for the leftmost child, left sibling otherwise
+        private Node<T> previous;
+
+        private Node(T element)
+        {
+            this.element = element;
+        }
+
+        /**
+         * Getter for the element of the node.
+         * @return the element
+         */
+        public T getElement()
+        {
+            return element;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package structures;
+
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+/**
+ * A monotone priority queue for non-negative long keys. Keys of inserted elements
+ * must not be smaller than the key of the last deleted element, which is the case
+ * for timers and Dijkstra's shortest paths. Each element moves between at most 65
+ * buckets over it's lifetime, so operations cost O(1) amortized plus O(log C) for
+ * a key range C, and keys are never compared as objects.
+ *
+ * @author Alex Krytskyi
+ * @version 1.0
+ *
+ * @param <T>
+ */
+public class RadixHeap<T>
+{
+    //bucket i holds keys whose highest bit that differs from lastKey is bit i - 1
+    private static final int BUCKETS = Long.SIZE + 1;
+
+    private final ToLongFunction<? super T> keyExtractor;
+    private final Bucket<T>[] buckets;
+    private long lastKey = 0;
+    private int size = 0;
+
+    /**
+     * Instantiates a new Radix heap.
+     * @param keyExtractor function that returns the non-negative priority of the element
+     */
+    public RadixHeap(ToLongFunction<? super T> keyExtractor)
+    {
+        if(keyExtractor == null)
+        {
+            throw new IllegalArgumentException("Key extractor can't be null");
+        }
+        this.keyExtractor = keyExtractor;
+        this.buckets = (Bucket<T>[]) new Bucket[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            buckets[i] = new Bucket<>();
+        }
+    }
+
+    /**
+     * Inserts element to the heap
+     * @param element T new element
+     * @throws IllegalArgumentException if the key is smaller than the last deleted key
+     */
+    public void insert(T element)
+    {
+        long key = keyExtractor.applyAsLong(element);
+        if(key < lastKey)
+        {
+            throw new IllegalArgumentException("Key " + key + " is smaller than the last deleted key " + lastKey);
+        }
+        buckets[bucketIndex(key)].add(element, key);
+        size++;
+    }
+
+    /**
+     * Deletes an element with the smallest key
+     * @return T element with the smallest key
+     */
+    public T deleteMin()
+    {
+        if(isEmpty())
+        {
+            throw new NoSuchElementException("The heap is empty!");
+        }
+        if(buckets[0].isEmpty())
+        {
+            redistribute();
+        }
+        size--;
+        return buckets[0].removeLast();
+    }
+
+    /**
+     * Returns an element with the smallest key without deleting it
+     * @return T element with the smallest key
+     */
+    public T peek()
+    {
+        if(isEmpty())
+        {
+            throw new NoSuchElementException("The heap is empty");
+        }
+        if(!buckets[0].isEmpty())
+        {
+            return buckets[0].element(buckets[0].size() - 1);
+        }
+        Bucket<T> bucket = firstNonEmpty();
+        return bucket.element(bucket.minIndex());
+    }
+
+    /**
+     * Returns the size of the heap
+     * @return int size of heap
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * checks is the heap empty or not
+     * @return boolean returns empty or not.
+     */
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /**
+     * Resets the heap, keys start from 0 again
+     */
+    public void clear()
+    {
+        for (Bucket<T> bucket : buckets)
+        {
+            bucket.clear();
+        }
+        this.size = 0;
+        this.lastKey = 0;
+    }
+
+    //moves the smallest key to lastKey and spreads it's bucket over the lower buckets
+    private void redistribute()
+    {
+        Bucket<T> bucket = firstNonEmpty();
+        lastKey = bucket.key(bucket.minIndex());
+
+        //every element of the bucket now differs from lastKey in a lower bit
+        while (!bucket.isEmpty())
+        {
+            long key = bucket.key(bucket.size() - 1);
+            T element = bucket.removeLast();
+            buckets[bucketIndex(key)].add(element, key);
+        }
+    }
+
+    private Bucket<T> firstNonEmpty()
+    {
+        for (int i = 1; i < BUCKETS; i++)
+        {
+            if(!buckets[i].isEmpty())
+            {
+                return buckets[i];
+            }
+        }
+        throw new IllegalStateException("Size is positive but all buckets are empty");
+    }
+
+    private int bucketIndex(long key)
+    {
+        return Long.SIZE - Long.numberOfLeadingZeros(key ^ lastKey);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RadixHeap{" +
+                "lastKey=" + lastKey +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package tests;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import structures.BucketQueue;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * @author Alex Krytskyi
+ * @version 1.0
+ */
+public class BucketQueueTest
+{
+    private static Random rand = new Random();
+    private static final int ARRAY_SIZE = 100000;
+    private static final int RANGE = 100;
+    private BucketQueue<Long> longQueue;
+
+    @Before
+    public void setup()
+    {
+        longQueue = new BucketQueue<>(Long::longValue, RANGE);
+    }
+    @Test
+    public void testMonotoneInserts()
+    {
+        for (int i = 0; i < RANGE; i++)
+        {
+            longQueue.insert((long) rand.nextInt(RANGE));
+        }
+        long previous = 0;
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            long peeked = longQueue.peek();
+            long min = longQueue.deleteMin();
+            Assert.assertEquals("Peeked element doesn't equal removed element", peeked, min);
+            Assert.assertTrue("Queue isn't in sorted order!", previous <= min);
+            previous = min;
+            longQueue.insert(min + rand.nextInt(RANGE));
+        }
+        Assert.assertEquals("Queue should keep the same size", RANGE, longQueue.size());
+    }
+    @Test
+    public void testInsertOutOfRange()
+    {
+        try
+        {
+            longQueue.insert((long) RANGE);
+            Assert.fail("Didn't thrown exception on a key outside of the range.");
+        }
+        catch (IllegalArgumentException ex)
+        {
+            //passed the test
+        }
+        longQueue.insert(RANGE - 1L);
+        longQueue.deleteMin();
+        longQueue.insert(2L * RANGE - 2);
+        Assert.assertEquals("Range should move with the last deleted key", 2L * RANGE - 2, (long) longQueue.peek());
+    }
+    @Test
+    public void testRemoveOnEmpty()
+    {
+        try
+        {
+            longQueue.deleteMin();
+            Assert.fail("Didn't thrown exception on removal of elements with empty queue.");
+        }
+        catch (NoSuchElementException ex)
+        {
+            //passed the test
+        }
+    }
+}
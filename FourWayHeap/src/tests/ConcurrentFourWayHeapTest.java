@@ -0,0 +1,155 @@
+package tests;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import structures.ConcurrentFourWayHeap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * @author Alex Krytskyi
+ * @version 1.0
+ */
+public class ConcurrentFourWayHeapTest
+{
+    private static final int THREADS = 4;
+    private static final int PER_THREAD = 25000;
+    private ConcurrentFourWayHeap<Integer> intHeap;
+
+    @Before
+    public void setup()
+    {
+        intHeap = ConcurrentFourWayHeap.naturalOrder();
+    }
+    @Test
+    public void testSingleThread()
+    {
+        for (int i = 0; i < PER_THREAD; i++)
+        {
+            intHeap.insert(i);
+        }
+        Assert.assertEquals("Heap didn't save all the elements", PER_THREAD, intHeap.size());
+        boolean[] seen = new boolean[PER_THREAD];
+        Integer element;
+        while ((element = intHeap.poll()) != null)
+        {
+            Assert.assertFalse("Element returned twice", seen[element]);
+            seen[element] = true;
+        }
+        Assert.assertTrue("Heap should be empty", intHeap.isEmpty());
+        for (int i = 0; i < PER_THREAD; i++)
+        {
+            Assert.assertTrue("Element " + i + " was lost", seen[i]);
+        }
+    }
+    @Test
+    public void testProducersAndConsumers() throws InterruptedException
+    {
+        AtomicIntegerArray seen = new AtomicIntegerArray(THREADS * PER_THREAD);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++)
+        {
+            int offset = t * PER_THREAD;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < PER_THREAD; i++)
+                {
+                    intHeap.insert(offset + i);
+                }
+            }));
+            threads.add(new Thread(() -> {
+                try
+                {
+                    for (int i = 0; i < PER_THREAD; i++)
+                    {
+                        seen.incrementAndGet(intHeap.take());
+                    }
+                }
+                catch (InterruptedException ex)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        Assert.assertTrue("Heap should be empty", intHeap.isEmpty());
+        for (int i = 0; i < seen.length(); i++)
+        {
+            Assert.assertEquals("Element " + i + " should be taken once", 1, seen.get(i));
+        }
+    }
+    @Test
+    public void testSizeNeverNegative() throws InterruptedException
+    {
+        //one shard, so every poll() races the insert() that just unlocked it
+        ConcurrentFourWayHeap<Integer> heap = new ConcurrentFourWayHeap<>(1, Integer::compare);
+        AtomicInteger smallest = new AtomicInteger();
+        AtomicInteger taken = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++)
+        {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < PER_THREAD; i++)
+                {
+                    heap.insert(i);
+                }
+            }));
+            threads.add(new Thread(() -> {
+                while (taken.get() < THREADS * PER_THREAD)
+                {
+                    if(heap.poll() != null)
+                    {
+                        taken.incrementAndGet();
+                    }
+                    smallest.accumulateAndGet(heap.size(), Math::min);
+                }
+            }));
+        }
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        Assert.assertTrue("Size went negative: " + smallest.get(), smallest.get() >= 0);
+        Assert.assertTrue("Heap should be empty", heap.isEmpty());
+    }
+    @Test
+    public void testTimedPoll() throws InterruptedException
+    {
+        Assert.assertNull("Poll on empty heap should time out", intHeap.poll(10, TimeUnit.MILLISECONDS));
+        intHeap.insert(5);
+        Assert.assertEquals("Poll should return the element", 5, (int) intHeap.poll(10, TimeUnit.MILLISECONDS));
+    }
+    @Test
+    public void testPeek()
+    {
+        try
+        {
+            intHeap.peek();
+            Assert.fail("Didn't thrown exception on peek with empty heap.");
+        }
+        catch (NoSuchElementException ex)
+        {
+            //passed the test
+        }
+        intHeap.insert(7);
+        intHeap.insert(3);
+        intHeap.insert(9);
+        Assert.assertEquals("Peek should return the smallest element", 3, (int) intHeap.peek());
+    }
+}
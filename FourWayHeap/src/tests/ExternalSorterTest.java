@@ -0,0 +1,198 @@
+package tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import structures.ExternalSorter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * @author Alex Krytskyi
+ * @version 1.0
+ */
+public class ExternalSorterTest
+{
+    private static Random rand = new Random();
+    private static final int ARRAY_SIZE = 100000;
+    private static final int RUN_SIZE = 3000;
+
+    private static final ExternalSorter.Codec<Integer> INT_CODEC = new ExternalSorter.Codec<Integer>()
+    {
+        @Override
+        public void write(DataOutput out, Integer element) throws IOException
+        {
+            out.writeInt(element);
+        }
+
+        @Override
+        public Integer read(DataInput in) throws IOException
+        {
+            return in.readInt();
+        }
+    };
+
+    private static final ExternalSorter.Codec<long[]> PAIR_CODEC = new ExternalSorter.Codec<long[]>()
+    {
+        @Override
+        public void write(DataOutput out, long[] element) throws IOException
+        {
+            out.writeLong(element[0]);
+            out.writeLong(element[1]);
+        }
+
+        @Override
+        public long[] read(DataInput in) throws IOException
+        {
+            return new long[] {in.readLong(), in.readLong()};
+        }
+    };
+
+    @Test
+    public void testSortManyRuns() throws IOException
+    {
+        Path tempDirectory = Files.createTempDirectory("sort");
+        List<Integer> input = new ArrayList<>();
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            input.add(rand.nextInt());
+        }
+        ExternalSorter<Integer> sorter = new ExternalSorter<>(Comparator.naturalOrder(), INT_CODEC,
+                RUN_SIZE, tempDirectory);
+        List<Integer> results = new ArrayList<>();
+        sorter.sort(input.iterator(), results::add);
+
+        Collections.sort(input);
+        Assert.assertEquals("Sorted output doesn't match", input, results);
+        try (Stream<Path> files = Files.list(tempDirectory))
+        {
+            Assert.assertEquals("Run files should be deleted", 0, files.count());
+        }
+        Files.delete(tempDirectory);
+    }
+    @Test
+    public void testSortSingleRun() throws IOException
+    {
+        List<Integer> input = new ArrayList<>();
+        for (int i = 0; i < RUN_SIZE / 2; i++)
+        {
+            input.add(rand.nextInt());
+        }
+        ExternalSorter<Integer> sorter = new ExternalSorter<>(Comparator.reverseOrder(), INT_CODEC,
+                RUN_SIZE, null);
+        List<Integer> results = new ArrayList<>();
+        sorter.sort(input.iterator(), results::add);
+
+        input.sort(Comparator.reverseOrder());
+        Assert.assertEquals("Sorted output doesn't match", input, results);
+    }
+    @Test
+    public void testSortManyPasses() throws IOException
+    {
+        Path tempDirectory = Files.createTempDirectory("sort");
+        List<long[]> input = new ArrayList<>();
+        for (int i = 0; i < ARRAY_SIZE / 10; i++)
+        {
+            input.add(new long[] {rand.nextInt(100), i});
+        }
+        //34 runs merged three at a time need four passes, equal keys must stay in input order
+        ExternalSorter<long[]> sorter = new ExternalSorter<>(Comparator.comparingLong(pair -> pair[0]),
+                PAIR_CODEC, 300, 3, tempDirectory);
+        List<long[]> results = new ArrayList<>();
+        sorter.sort(input.iterator(), results::add);
+
+        input.sort(Comparator.comparingLong(pair -> pair[0]));
+        Assert.assertEquals("Sorted output doesn't have all elements", input.size(), results.size());
+        for (int i = 0; i < input.size(); i++)
+        {
+            Assert.assertArrayEquals("Sort isn't stable at " + i, input.get(i), results.get(i));
+        }
+        assertNoRunFiles(tempDirectory);
+    }
+    @Test
+    public void testRunFilesDeletedOnFailure() throws IOException
+    {
+        Path tempDirectory = Files.createTempDirectory("sort");
+        ExternalSorter.Codec<Integer> failingCodec = new ExternalSorter.Codec<Integer>()
+        {
+            private int reads;
+
+            @Override
+            public void write(DataOutput out, Integer element) throws IOException
+            {
+                out.writeInt(element);
+            }
+
+            @Override
+            public Integer read(DataInput in) throws IOException
+            {
+                if(++reads == ARRAY_SIZE / 2)
+                {
+                    throw new IOException("Broken run file");
+                }
+                return in.readInt();
+            }
+        };
+        List<Integer> input = new ArrayList<>();
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            input.add(rand.nextInt());
+        }
+        ExternalSorter<Integer> sorter = new ExternalSorter<>(Comparator.naturalOrder(), failingCodec,
+                RUN_SIZE, 4, tempDirectory);
+        try
+        {
+            sorter.sort(input.iterator(), element -> {});
+            Assert.fail("Didn't thrown exception for a broken run file");
+        }
+        catch (IOException ex)
+        {
+            Assert.assertEquals("Broken run file", ex.getMessage());
+        }
+        assertNoRunFiles(tempDirectory);
+    }
+    @Test
+    public void testCallerExceptionsPassThrough() throws IOException
+    {
+        Path tempDirectory = Files.createTempDirectory("sort");
+        List<Integer> input = new ArrayList<>();
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            input.add(rand.nextInt());
+        }
+        ExternalSorter<Integer> sorter = new ExternalSorter<>(Comparator.naturalOrder(), INT_CODEC,
+                RUN_SIZE, tempDirectory);
+        UncheckedIOException thrown = new UncheckedIOException(new IOException("Output is closed"));
+        try
+        {
+            sorter.sort(input.iterator(), element -> {
+                throw thrown;
+            });
+            Assert.fail("Didn't thrown exception of the output");
+        }
+        catch (UncheckedIOException ex)
+        {
+            Assert.assertTrue("Exception of the output was replaced", ex == thrown);
+        }
+        assertNoRunFiles(tempDirectory);
+    }
+
+    private static void assertNoRunFiles(Path tempDirectory) throws IOException
+    {
+        try (Stream<Path> files = Files.list(tempDirectory))
+        {
+            Assert.assertEquals("Run files should be deleted", 0, files.count());
+        }
+        Files.delete(tempDirectory);
+    }
+}
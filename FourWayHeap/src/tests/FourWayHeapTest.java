@@ -5,6 +5,13 @@ import org.junit.Before;
 import org.junit.Test;
 import structures.FourWayHeap;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Random;
 
@@ -22,7 +29,7 @@ public class FourWayHeapTest
     @Before
     public void setup()
     {
-        intHeap = new FourWayHeap<>();
+        intHeap = FourWayHeap.naturalOrder();
     }
     @Test
     public void testInsertEmpty()
@@ -41,7 +48,7 @@ public class FourWayHeapTest
         {
             array[i] = rand.nextInt(RAND_RANGE);
         }
-        intHeap = new FourWayHeap<>(array);
+        intHeap = FourWayHeap.naturalOrder(array);
         Assert.assertEquals("Array didn't save all the elements on non-empty insertion", intHeap.size(), ARRAY_SIZE);
 
         int first = 0, second = -99999;
@@ -150,7 +157,7 @@ public class FourWayHeapTest
         {
             array[i] = rand.nextInt(RAND_RANGE);
         }
-        intHeap = new FourWayHeap<>(array);
+        intHeap = FourWayHeap.naturalOrder(array);
         for (int i = 0; i < array.length; i++)
         {
             Assert.assertTrue("element should be in the array",intHeap.contains(array[i]));
@@ -171,4 +178,470 @@ public class FourWayHeapTest
             Assert.assertEquals("First item peeked doesn't equals to removed min elmeent", removedElement, tmp);
         }
     }
+    @Test
+    public void testComparatorOrder()
+    {
+        FourWayHeap<Integer> maxHeap = new FourWayHeap<>(Comparator.reverseOrder());
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            maxHeap.insert(rand.nextInt(RAND_RANGE));
+        }
+        int first, second = Integer.MAX_VALUE;
+
+        while (!maxHeap.isEmpty())
+        {
+            first = second;
+            second = maxHeap.deleteMin();
+            Assert.assertTrue("Array isn't in comparator order!", first >= second);
+        }
+    }
+    @Test
+    public void testNaturalOrderFactory()
+    {
+        FourWayHeap<String> stringHeap = FourWayHeap.naturalOrder(new String[]{"d", "b", "c"});
+        stringHeap.insert("a");
+        Assert.assertEquals("Natural order heap returned wrong minimum", "a", stringHeap.deleteMin());
+        Assert.assertEquals("Natural order heap returned wrong minimum", "b", stringHeap.deleteMin());
+    }
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testNotComparableRejected()
+    {
+        //the deprecated constructor can't check the type, the first insert does
+        FourWayHeap<Object> objectHeap = new FourWayHeap<>();
+        try
+        {
+            objectHeap.insert(new Object());
+            Assert.fail("Didn't thrown exception on a non comparable element.");
+        }
+        catch (ClassCastException ex)
+        {
+            //passed the test
+        }
+        Assert.assertTrue("Rejected element was kept", objectHeap.isEmpty());
+    }
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testInsertAllRejected()
+    {
+        FourWayHeap<Object> objectHeap = new FourWayHeap<>();
+        objectHeap.insert(5);
+        objectHeap.insert(4);
+        List<Object> elements = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+        {
+            elements.add(i == 50 ? new Object() : 100 - i);
+        }
+        try
+        {
+            objectHeap.insertAll(elements);
+            Assert.fail("Didn't thrown exception on a non comparable element.");
+        }
+        catch (ClassCastException ex)
+        {
+            //passed the test
+        }
+        try
+        {
+            objectHeap.insertAll(elements.toArray());
+            Assert.fail("Didn't thrown exception on a non comparable element.");
+        }
+        catch (ClassCastException ex)
+        {
+            //passed the test
+        }
+        Assert.assertEquals("Rejected batch left elements behind", 2, objectHeap.size());
+        objectHeap.insert(6);
+        Assert.assertEquals("Heap isn't usable after a rejected batch", 4, objectHeap.deleteMin());
+        Assert.assertEquals("Heap isn't usable after a rejected batch", 5, objectHeap.deleteMin());
+        Assert.assertEquals("Heap isn't usable after a rejected batch", 6, objectHeap.deleteMin());
+        Assert.assertTrue("Heap should be empty", objectHeap.isEmpty());
+    }
+    @Test
+    public void testKeyExtractorOrder()
+    {
+        FourWayHeap<long[]> keyHeap = new FourWayHeap<>(event -> event[0]);
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            keyHeap.insert(new long[]{rand.nextInt(RAND_RANGE), i});
+        }
+        Assert.assertEquals("Array didn't save all the elements", ARRAY_SIZE, keyHeap.size());
+        long first, second = Long.MIN_VALUE;
+
+        while (!keyHeap.isEmpty())
+        {
+            long[] peeked = keyHeap.peek();
+            long[] removed = keyHeap.deleteMin();
+            Assert.assertTrue("Peeked element doesn't equal removed element", peeked == removed);
+            first = second;
+            second = removed[0];
+            Assert.assertTrue("Array isn't in key order!", first <= second);
+        }
+    }
+    @Test
+    public void testInsertAfterArrayConstructor()
+    {
+        Integer array[] = {5, 3, 8, 1};
+        intHeap = FourWayHeap.naturalOrder(array);
+        intHeap.insert(0);
+        intHeap.insert(9);
+        int[] expected = {0, 1, 3, 5, 8, 9};
+        for (int value : expected)
+        {
+            Assert.assertEquals("Elements should come out in sorted order", value, (int) intHeap.deleteMin());
+        }
+        Assert.assertTrue("Heap should be empty", intHeap.isEmpty());
+    }
+    @Test
+    public void testInsertAll()
+    {
+        //a few elements into a big heap and a big batch into a small heap
+        int[] batchSizes = {ARRAY_SIZE / 1000, ARRAY_SIZE};
+        for (int batchSize : batchSizes)
+        {
+            intHeap = FourWayHeap.naturalOrder();
+            for (int i = 0; i < ARRAY_SIZE / 10; i++)
+            {
+                intHeap.insert(rand.nextInt(RAND_RANGE));
+            }
+            List<Integer> batch = new ArrayList<>();
+            for (int i = 0; i < batchSize; i++)
+            {
+                batch.add(rand.nextInt(RAND_RANGE));
+            }
+            intHeap.insertAll(batch);
+            Assert.assertEquals("Heap didn't save all the elements", ARRAY_SIZE / 10 + batchSize, intHeap.size());
+
+            int first, second = -99999;
+            while (!intHeap.isEmpty())
+            {
+                first = second;
+                second = intHeap.deleteMin();
+                Assert.assertTrue("Array isn't in sorted order after insertAll!", first <= second);
+            }
+        }
+    }
+    @Test
+    public void testMeld()
+    {
+        FourWayHeap<Integer> other = FourWayHeap.naturalOrder();
+        Integer array[] = new Integer[ARRAY_SIZE / 2];
+        for (int i = 0; i < array.length; i++)
+        {
+            array[i] = rand.nextInt(RAND_RANGE);
+            other.insert(rand.nextInt(RAND_RANGE));
+        }
+        intHeap.insertAll(array);
+        intHeap.meld(other);
+        Assert.assertEquals("Melded heap should have all elements", ARRAY_SIZE, intHeap.size());
+        Assert.assertEquals("Other heap shouldn't change", ARRAY_SIZE / 2, other.size());
+
+        int first, second = -99999;
+        while (!intHeap.isEmpty())
+        {
+            first = second;
+            second = intHeap.deleteMin();
+            Assert.assertTrue("Array isn't in sorted order after meld!", first <= second);
+        }
+    }
+    @Test
+    public void testDeleteMinBatch()
+    {
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            intHeap.insert(rand.nextInt(RAND_RANGE));
+        }
+        Integer[] batch = new Integer[1000];
+        int previous = -99999;
+        int removed = 0;
+        while (!intHeap.isEmpty())
+        {
+            int count = intHeap.deleteMin(batch.length, batch);
+            removed += count;
+            for (int i = 0; i < count; i++)
+            {
+                Assert.assertTrue("Batch isn't in sorted order!", previous <= batch[i]);
+                previous = batch[i];
+            }
+        }
+        Assert.assertEquals("All elements should be removed in batches", ARRAY_SIZE, removed);
+        Assert.assertEquals("Empty heap should return no elements", 0, intHeap.deleteMin(batch.length, batch));
+    }
+    @Test
+    public void testDrainTo()
+    {
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            intHeap.insert(rand.nextInt(RAND_RANGE));
+        }
+        List<Integer> drained = new ArrayList<>();
+        Assert.assertEquals("Should drain max elements", 1000, intHeap.drainTo(drained, 1000));
+        Assert.assertEquals("Heap should lose drained elements", ARRAY_SIZE - 1000, intHeap.size());
+        Assert.assertTrue("Drained elements should be the smallest", drained.get(999) <= intHeap.peek());
+        for (int i = 1; i < drained.size(); i++)
+        {
+            Assert.assertTrue("Drained elements aren't in sorted order!", drained.get(i - 1) <= drained.get(i));
+        }
+    }
+    @Test
+    public void testDeleteMinBatchFailure()
+    {
+        //the comparator breaks after a while, in the middle of a batch
+        int[] comparisons = {0};
+        FourWayHeap<Integer> failingHeap = new FourWayHeap<>((first, second) -> {
+            if(comparisons[0]-- == 0)
+            {
+                throw new IllegalStateException("Comparator failed");
+            }
+            return Integer.compare(first, second);
+        });
+        comparisons[0] = -1;
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < ARRAY_SIZE / 10; i++)
+        {
+            int element = rand.nextInt(RAND_RANGE);
+            failingHeap.insert(element);
+            expected.add(element);
+        }
+        Collections.sort(expected);
+
+        comparisons[0] = 5000;
+        Integer[] batch = new Integer[1000];
+        try
+        {
+            failingHeap.deleteMin(batch.length, batch);
+            Assert.fail("Didn't thrown exception of the comparator.");
+        }
+        catch (IllegalStateException ex)
+        {
+            //passed the test
+        }
+        comparisons[0] = -1;
+        List<Integer> results = new ArrayList<>();
+        for (int i = 0; i < batch.length && batch[i] != null; i++)
+        {
+            results.add(batch[i]);
+        }
+        Assert.assertEquals("Heap lost or duplicated elements", expected.size() - results.size(),
+                failingHeap.size());
+        while (!failingHeap.isEmpty())
+        {
+            results.add(failingHeap.deleteMin());
+        }
+        Assert.assertEquals("Heap isn't usable after a failed batch", expected, results);
+    }
+    @Test
+    public void testBatchWithKeysAndIterator()
+    {
+        FourWayHeap<long[]> keyHeap = new FourWayHeap<>(event -> event[0]);
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            keyHeap.insert(new long[]{rand.nextInt(RAND_RANGE)});
+        }
+        Iterator<long[]> iterator = keyHeap.iterator();
+        long[][] batch = new long[ARRAY_SIZE / 2][];
+        Assert.assertEquals("Should delete k elements", ARRAY_SIZE / 2, keyHeap.deleteMin(batch.length, batch));
+        try
+        {
+            iterator.next();
+            Assert.fail("Didn't thrown exception after a batch deletion.");
+        }
+        catch (ConcurrentModificationException ex)
+        {
+            //passed the test
+        }
+        //the rest of the heap must still be in key order after the batch
+        long previous = batch[batch.length - 1][0];
+        while (!keyHeap.isEmpty())
+        {
+            long key = keyHeap.deleteMin()[0];
+            Assert.assertTrue("Keys aren't in order after a batch!", previous <= key);
+            previous = key;
+        }
+        Assert.assertTrue("Array should shrink after the batch", keyHeap.capacity() < ARRAY_SIZE);
+    }
+    @Test
+    public void testPeekK()
+    {
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            intHeap.insert(rand.nextInt(RAND_RANGE));
+        }
+        List<Integer> peeked = intHeap.peek(1000);
+        Assert.assertEquals("Peek shouldn't change the heap", ARRAY_SIZE, intHeap.size());
+        for (int i = 0; i < peeked.size(); i++)
+        {
+            Assert.assertEquals("Peeked elements should match removed elements", peeked.get(i), intHeap.deleteMin());
+        }
+        intHeap.clear();
+        Assert.assertTrue("Peek on empty heap should return no elements", intHeap.peek(10).isEmpty());
+    }
+    @Test
+    public void testBounded()
+    {
+        int maxSize = 100;
+        intHeap = FourWayHeap.bounded(maxSize);
+        List<Integer> all = new ArrayList<>();
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            int value = rand.nextInt(ARRAY_SIZE);
+            all.add(value);
+            intHeap.insert(value);
+        }
+        Assert.assertEquals("Bounded heap should keep only max size elements", maxSize, intHeap.size());
+        Collections.sort(all);
+        for (int i = ARRAY_SIZE - maxSize; i < ARRAY_SIZE; i++)
+        {
+            Assert.assertEquals("Bounded heap should keep the greatest elements", all.get(i), intHeap.deleteMin());
+        }
+    }
+    @Test
+    public void testBoundedOffer()
+    {
+        FourWayHeap<long[]> keyHeap = FourWayHeap.bounded(3, event -> event[0]);
+        Assert.assertTrue("Heap isn't full yet", keyHeap.offer(new long[]{5}));
+        Assert.assertTrue("Heap isn't full yet", keyHeap.offer(new long[]{1}));
+        Assert.assertTrue("Heap isn't full yet", keyHeap.offer(new long[]{7}));
+        Assert.assertFalse("Smaller element should be rejected", keyHeap.offer(new long[]{0}));
+        Assert.assertFalse("Element equal to the root should be rejected", keyHeap.offer(new long[]{1}));
+        Assert.assertTrue("Greater element should replace the root", keyHeap.offer(new long[]{6}));
+        Assert.assertEquals("Bounded heap should stay at max size", 3, keyHeap.size());
+        Assert.assertEquals("Root should be the smallest kept element", 5, keyHeap.deleteMin()[0]);
+
+        FourWayHeap<Integer> smallest = FourWayHeap.bounded(2, Comparator.reverseOrder());
+        smallest.insertAll(new Integer[]{4, 2, 9, 1, 3});
+        Assert.assertEquals("Reversed bounded heap should keep the smallest elements", 2, (int) smallest.deleteMin());
+        Assert.assertEquals("Reversed bounded heap should keep the smallest elements", 1, (int) smallest.deleteMin());
+    }
+    @Test
+    public void testReplaceMin()
+    {
+        intHeap.insertAll(new Integer[]{4, 2, 9, 6});
+        Assert.assertEquals("Replace should return the old minimum", 2, (int) intHeap.replaceMin(7));
+        Assert.assertEquals("Size shouldn't change on replace", 4, intHeap.size());
+        int[] expected = {4, 6, 7, 9};
+        for (int value : expected)
+        {
+            Assert.assertEquals("Elements should come out in sorted order", value, (int) intHeap.deleteMin());
+        }
+    }
+    @Test
+    public void testIterator()
+    {
+        Integer array[] = new Integer[ARRAY_SIZE];
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            array[i] = i;
+        }
+        intHeap = FourWayHeap.naturalOrder(array);
+        boolean[] seen = new boolean[ARRAY_SIZE];
+        int count = 0;
+        for (int element : intHeap)
+        {
+            seen[element] = true;
+            count++;
+        }
+        Assert.assertEquals("Iterator should visit every element", ARRAY_SIZE, count);
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            Assert.assertTrue("Iterator missed element " + i, seen[i]);
+        }
+        Assert.assertEquals("toArray should return every element", ARRAY_SIZE, intHeap.toArray().length);
+
+        Iterator<Integer> iterator = intHeap.iterator();
+        iterator.next();
+        intHeap.insert(5);
+        try
+        {
+            iterator.next();
+            Assert.fail("Iterator should fail after the heap was changed");
+        }
+        catch (ConcurrentModificationException ex)
+        {
+            //passed the test
+        }
+    }
+    @Test
+    public void testSortedIterator()
+    {
+        Integer array[] = new Integer[ARRAY_SIZE];
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            array[i] = rand.nextInt(RAND_RANGE);
+        }
+        intHeap = FourWayHeap.naturalOrder(array);
+        Object[] sorted = intHeap.toSortedArray();
+        Arrays.sort(array);
+        Assert.assertArrayEquals("Sorted export doesn't match", array, sorted);
+        Assert.assertEquals("Sorted export shouldn't change the heap", ARRAY_SIZE, intHeap.size());
+
+        Iterator<Integer> iterator = intHeap.sortedIterator();
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            Assert.assertEquals("Sorted iterator isn't in order", array[i], iterator.next());
+        }
+        Assert.assertFalse("Sorted iterator returned extra elements", iterator.hasNext());
+        Assert.assertFalse("Empty heap has no elements", FourWayHeap.<Integer>naturalOrder().sortedIterator().hasNext());
+    }
+    @Test
+    public void testHeapSort()
+    {
+        Integer array[] = new Integer[ARRAY_SIZE];
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            array[i] = rand.nextInt(RAND_RANGE);
+        }
+        Integer expected[] = array.clone();
+        Arrays.sort(expected);
+        Integer reversed[] = array.clone();
+
+        FourWayHeap.heapSort(array);
+        Assert.assertArrayEquals("Heap sort doesn't match", expected, array);
+
+        FourWayHeap.heapSort(reversed, Comparator.reverseOrder());
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            Assert.assertEquals("Reversed heap sort doesn't match", expected[ARRAY_SIZE - 1 - i], reversed[i]);
+        }
+    }
+    @Test
+    public void testShrink()
+    {
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            intHeap.insert(rand.nextInt(RAND_RANGE));
+        }
+        Assert.assertTrue("Heap should grow", intHeap.capacity() > ARRAY_SIZE);
+        while (intHeap.size() > 10)
+        {
+            intHeap.deleteMin();
+        }
+        Assert.assertTrue("Heap should shrink after removals", intHeap.capacity() <= 4 * 10 + 1);
+
+        int first, second = -99999;
+        while (!intHeap.isEmpty())
+        {
+            first = second;
+            second = intHeap.deleteMin();
+            Assert.assertTrue("Array isn't in sorted order after shrinking!", first <= second);
+        }
+    }
+    @Test
+    public void testTrimToSize()
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            intHeap.insert(rand.nextInt(RAND_RANGE));
+        }
+        intHeap.trimToSize();
+        Assert.assertEquals("Trimmed heap should keep one free slot", 101, intHeap.capacity());
+        intHeap.insert(-1);
+        Assert.assertEquals("Heap should grow after trim", 101, intHeap.size());
+        Assert.assertEquals("Minimum should survive trim", -1, (int) intHeap.peek());
+
+        intHeap.clear();
+        intHeap.trimToSize();
+        intHeap.insert(3);
+        Assert.assertEquals("Trimmed empty heap should accept elements", 3, (int) intHeap.peek());
+    }
 }
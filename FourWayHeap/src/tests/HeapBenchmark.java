@@ -0,0 +1,175 @@
+package tests;
+
+import structures.BucketQueue;
+import structures.FourWayHeap;
+import structures.PairingHeap;
+import structures.RadixHeap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares priority queues on a monotone timer workload: every step deletes the
+ * earliest timer and schedules a new one a random delay after it. Also compares
+ * melding many small heaps into one, then draining the result.
+ *
+ * @author Alex Krytskyi
+ * @version 1.0
+ */
+public class HeapBenchmark
+{
+    private static final int QUEUE_SIZE = 1000000;
+    private static final int STEPS = 5000000;
+    private static final int MAX_DELAY = 1000;
+    private static final int ROUNDS = 5;
+    private static final int WORKERS = 500;
+    private static final int PER_WORKER = 2000;
+    private static final int DRAINED = 1000;
+
+    public static void main(String[] args)
+    {
+        for (int round = 1; round <= ROUNDS; round++)
+        {
+            System.out.println("Round " + round);
+            run("FourWayHeap", new FourWayHeapQueue());
+            run("RadixHeap", new RadixHeapQueue());
+            run("BucketQueue", new BucketQueueQueue());
+            runMeld();
+        }
+    }
+
+    //melds per-worker heaps into one and pops the first few elements
+    private static void runMeld()
+    {
+        Random rand = new Random(42);
+        List<FourWayHeap<Integer>> arrayHeaps = new ArrayList<>();
+        List<PairingHeap<Integer>> pairingHeaps = new ArrayList<>();
+        for (int i = 0; i < WORKERS; i++)
+        {
+            FourWayHeap<Integer> arrayHeap = FourWayHeap.naturalOrder();
+            PairingHeap<Integer> pairingHeap = PairingHeap.naturalOrder();
+            for (int j = 0; j < PER_WORKER; j++)
+            {
+                int value = rand.nextInt();
+                arrayHeap.insert(value);
+                pairingHeap.insert(value);
+            }
+            arrayHeaps.add(arrayHeap);
+            pairingHeaps.add(pairingHeap);
+        }
+
+        long start = System.nanoTime();
+        FourWayHeap<Integer> arrayResult = FourWayHeap.naturalOrder();
+        for (FourWayHeap<Integer> heap : arrayHeaps)
+        {
+            arrayResult.meld(heap);
+        }
+        long meldMillis = (System.nanoTime() - start) / 1000000;
+        long checksum = 0;
+        for (int i = 0; i < DRAINED; i++)
+        {
+            checksum += arrayResult.deleteMin();
+        }
+        long millis = (System.nanoTime() - start) / 1000000;
+        System.out.println("  FourWayHeap meld: " + meldMillis + " ms, meld and drain: " + millis +
+                " ms (checksum " + checksum + ")");
+
+        start = System.nanoTime();
+        PairingHeap<Integer> pairingResult = PairingHeap.naturalOrder();
+        for (PairingHeap<Integer> heap : pairingHeaps)
+        {
+            pairingResult.meld(heap);
+        }
+        meldMillis = (System.nanoTime() - start) / 1000000;
+        checksum = 0;
+        for (int i = 0; i < DRAINED; i++)
+        {
+            checksum += pairingResult.deleteMin();
+        }
+        millis = (System.nanoTime() - start) / 1000000;
+        System.out.println("  PairingHeap meld: " + meldMillis + " ms, meld and drain: " + millis +
+                " ms (checksum " + checksum + ")");
+    }
+
+    private static void run(String name, TimerQueue queue)
+    {
+        Random rand = new Random(42);
+        long start = System.nanoTime();
+        for (int i = 0; i < QUEUE_SIZE; i++)
+        {
+            queue.insert(new Timer(rand.nextInt(MAX_DELAY)));
+        }
+        long checksum = 0;
+        for (int i = 0; i < STEPS; i++)
+        {
+            Timer timer = queue.deleteMin();
+            checksum += timer.time;
+            queue.insert(new Timer(timer.time + rand.nextInt(MAX_DELAY)));
+        }
+        long millis = (System.nanoTime() - start) / 1000000;
+        System.out.println("  " + name + ": " + millis + " ms (checksum " + checksum + ")");
+    }
+
+    private static class Timer
+    {
+        private final long time;
+
+        Timer(long time)
+        {
+            this.time = time;
+        }
+    }
+
+    private interface TimerQueue
+    {
+        void insert(Timer timer);
+
+        Timer deleteMin();
+    }
+
+    private static class FourWayHeapQueue implements TimerQueue
+    {
+        private FourWayHeap<Timer> heap = new FourWayHeap<>(timer -> timer.time);
+
+        public void insert(Timer timer)
+        {
+            heap.insert(timer);
+        }
+
+        public Timer deleteMin()
+        {
+            return heap.deleteMin();
+        }
+    }
+
+    private static class RadixHeapQueue implements TimerQueue
+    {
+        private RadixHeap<Timer> heap = new RadixHeap<>(timer -> timer.time);
+
+        public void insert(Timer timer)
+        {
+            heap.insert(timer);
+        }
+
+        public Timer deleteMin()
+        {
+            return heap.deleteMin();
+        }
+    }
+
+    private static class BucketQueueQueue implements TimerQueue
+    {
+        private BucketQueue<Timer> queue = new BucketQueue<>(timer -> timer.time, MAX_DELAY);
+
+        public void insert(Timer timer)
+        {
+            queue.insert(timer);
+        }
+
+        public Timer deleteMin()
+        {
+            return queue.deleteMin();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import structures.KWayMerge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author Alex Krytskyi
+ * @version 1.0
+ */
+public class KWayMergeTest
+{
+    private static Random rand = new Random();
+    private static final int SOURCES = 50;
+    private static final int SOURCE_SIZE = 2000;
+
+    @Test
+    public void testMergeSorted()
+    {
+        List<Integer> expected = new ArrayList<>();
+        List<Iterator<Integer>> sources = new ArrayList<>();
+        for (int i = 0; i < SOURCES; i++)
+        {
+            //some sources are empty
+            List<Integer> source = new ArrayList<>();
+            int length = rand.nextInt(SOURCE_SIZE);
+            for (int j = 0; j < length; j++)
+            {
+                source.add(rand.nextInt(SOURCE_SIZE));
+            }
+            Collections.sort(source);
+            expected.addAll(source);
+            sources.add(source.iterator());
+        }
+        Collections.sort(expected);
+
+        Iterator<Integer> merged = KWayMerge.merge(sources);
+        for (Integer element : expected)
+        {
+            Assert.assertTrue("Merge lost elements", merged.hasNext());
+            Assert.assertEquals("Merged elements aren't in sorted order", element, merged.next());
+        }
+        Assert.assertFalse("Merge returned extra elements", merged.hasNext());
+    }
+    @Test
+    public void testMergeIsStable()
+    {
+        List<Iterator<String>> sources = Arrays.asList(
+                Arrays.asList("a1", "b1").iterator(),
+                Arrays.asList("a2", "b2").iterator());
+        Iterator<String> merged = KWayMerge.merge(sources, (first, second) -> first.charAt(0) - second.charAt(0));
+        List<String> results = new ArrayList<>();
+        merged.forEachRemaining(results::add);
+        Assert.assertEquals("Equal elements should keep source order",
+                Arrays.asList("a1", "a2", "b1", "b2"), results);
+    }
+}
@@ -0,0 +1,158 @@
+package tests;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import structures.PairingHeap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * @author Alex Krytskyi
+ * @version 1.0
+ */
+public class PairingHeapTest
+{
+    private static Random rand = new Random();
+    private static final int ARRAY_SIZE = 100000;
+    private static final int RAND_RANGE = 1000;
+    private PairingHeap<Integer> intHeap;
+
+    @Before
+    public void setup()
+    {
+        intHeap = PairingHeap.naturalOrder();
+    }
+    @Test
+    public void testRemoveFull()
+    {
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            intHeap.insert(rand.nextInt(RAND_RANGE));
+        }
+        Assert.assertEquals("Heap didn't save all the elements", ARRAY_SIZE, intHeap.size());
+        int first, second = -99999;
+
+        while (!intHeap.isEmpty())
+        {
+            first = second;
+            int peeked = intHeap.peek();
+            second = intHeap.deleteMin();
+            Assert.assertEquals("Peeked element doesn't equal removed element", peeked, second);
+            Assert.assertTrue("Heap isn't in sorted order!", first <= second);
+        }
+    }
+    @Test
+    public void testMeld()
+    {
+        List<PairingHeap<Integer>> heaps = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+        {
+            PairingHeap<Integer> heap = PairingHeap.naturalOrder();
+            for (int j = 0; j < ARRAY_SIZE / 100; j++)
+            {
+                heap.insert(rand.nextInt(RAND_RANGE));
+            }
+            heaps.add(heap);
+        }
+        for (PairingHeap<Integer> heap : heaps)
+        {
+            intHeap.meld(heap);
+            Assert.assertTrue("Melded heap should be emptied", heap.isEmpty());
+        }
+        Assert.assertEquals("Melded heap should have all elements", ARRAY_SIZE, intHeap.size());
+        int first, second = -99999;
+
+        while (!intHeap.isEmpty())
+        {
+            first = second;
+            second = intHeap.deleteMin();
+            Assert.assertTrue("Heap isn't in sorted order after meld!", first <= second);
+        }
+    }
+    @Test
+    public void testDecreaseKey()
+    {
+        //unique elements in random order, so we know which nodes deleteMin() removes
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            values.add(ARRAY_SIZE + i);
+        }
+        Collections.shuffle(values, rand);
+        List<PairingHeap.Node<Integer>> nodes = new ArrayList<>();
+        for (int value : values)
+        {
+            nodes.add(intHeap.insert(value));
+        }
+        //pop a few so the heap has a real tree shape
+        int removed = 10;
+        for (int i = 0; i < removed; i++)
+        {
+            intHeap.deleteMin();
+        }
+        List<PairingHeap.Node<Integer>> live = new ArrayList<>();
+        for (PairingHeap.Node<Integer> node : nodes)
+        {
+            if(node.getElement() >= ARRAY_SIZE + removed)
+            {
+                live.add(node);
+            }
+        }
+        PairingHeap.Node<Integer> node = live.get(live.size() - 1);
+        intHeap.decreaseKey(node, -1);
+        Assert.assertEquals("Decreased element should be the minimum", -1, (int) intHeap.peek());
+        Assert.assertEquals("Handle should see the new element", -1, (int) node.getElement());
+
+        for (int i = 0; i < ARRAY_SIZE / 2; i++)
+        {
+            PairingHeap.Node<Integer> random = live.get(rand.nextInt(live.size()));
+            intHeap.decreaseKey(random, random.getElement() - rand.nextInt(RAND_RANGE));
+        }
+        int first, second = Integer.MIN_VALUE;
+        int count = 0;
+        while (!intHeap.isEmpty())
+        {
+            first = second;
+            second = intHeap.deleteMin();
+            count++;
+            Assert.assertTrue("Heap isn't in sorted order after decreaseKey!", first <= second);
+        }
+        Assert.assertEquals("decreaseKey shouldn't lose elements", ARRAY_SIZE - removed, count);
+
+        try
+        {
+            PairingHeap.Node<Integer> last = intHeap.insert(5);
+            intHeap.decreaseKey(last, 6);
+            Assert.fail("Didn't thrown exception on increasing a key.");
+        }
+        catch (IllegalArgumentException ex)
+        {
+            //passed the test
+        }
+    }
+    @Test
+    public void testComparatorAndEmpty()
+    {
+        PairingHeap<Integer> maxHeap = new PairingHeap<>(Comparator.reverseOrder());
+        maxHeap.insert(3);
+        maxHeap.insert(9);
+        maxHeap.insert(1);
+        Assert.assertEquals("Comparator should put the greatest element first", 9, (int) maxHeap.deleteMin());
+        maxHeap.clear();
+        try
+        {
+            maxHeap.deleteMin();
+            Assert.fail("Didn't thrown exception on removal of elements with empty heap.");
+        }
+        catch (NoSuchElementException ex)
+        {
+            //passed the test
+        }
+    }
+}
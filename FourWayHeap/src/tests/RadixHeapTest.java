@@ -0,0 +1,98 @@
+package tests;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import structures.RadixHeap;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * @author Alex Krytskyi
+ * @version 1.0
+ */
+public class RadixHeapTest
+{
+    private static Random rand = new Random();
+    private static final int ARRAY_SIZE = 100000;
+    private static final int RAND_RANGE = 1000;
+    private RadixHeap<Long> longHeap;
+
+    @Before
+    public void setup()
+    {
+        longHeap = new RadixHeap<>(Long::longValue);
+    }
+    @Test
+    public void testRemoveFull()
+    {
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            longHeap.insert((long) rand.nextInt(Integer.MAX_VALUE));
+        }
+        Assert.assertEquals("Heap didn't save all the elements", ARRAY_SIZE, longHeap.size());
+        long first, second = -1;
+
+        while (!longHeap.isEmpty())
+        {
+            first = second;
+            long peeked = longHeap.peek();
+            second = longHeap.deleteMin();
+            Assert.assertEquals("Peeked element doesn't equal removed element", peeked, second);
+            Assert.assertTrue("Heap isn't in sorted order!", first <= second);
+        }
+    }
+    @Test
+    public void testMonotoneInserts()
+    {
+        //keep inserting keys greater than the last minimum, like a timer wheel
+        for (int i = 0; i < RAND_RANGE; i++)
+        {
+            longHeap.insert((long) rand.nextInt(RAND_RANGE));
+        }
+        long previous = 0;
+        for (int i = 0; i < ARRAY_SIZE; i++)
+        {
+            long min = longHeap.deleteMin();
+            Assert.assertTrue("Heap isn't in sorted order!", previous <= min);
+            previous = min;
+            longHeap.insert(min + rand.nextInt(RAND_RANGE));
+        }
+        Assert.assertEquals("Heap should keep the same size", RAND_RANGE, longHeap.size());
+    }
+    @Test
+    public void testInsertBelowLastKey()
+    {
+        longHeap.insert(10L);
+        longHeap.insert(20L);
+        longHeap.deleteMin();
+        try
+        {
+            longHeap.insert(5L);
+            Assert.fail("Didn't thrown exception on a key smaller than the last deleted key.");
+        }
+        catch (IllegalArgumentException ex)
+        {
+            //passed the test
+        }
+        longHeap.insert(15L);
+        Assert.assertEquals("Minimum should be the new key", 15L, (long) longHeap.deleteMin());
+    }
+    @Test
+    public void testRemoveOnEmpty()
+    {
+        try
+        {
+            longHeap.deleteMin();
+            Assert.fail("Didn't thrown exception on removal of elements with empty heap.");
+        }
+        catch (NoSuchElementException ex)
+        {
+            //passed the test
+        }
+        longHeap.insert(1L);
+        longHeap.clear();
+        Assert.assertTrue("Heap should be empty after clear", longHeap.isEmpty());
+    }
+}
@@ -1,6 +1,8 @@
 package graphs;
 
+import java.util.HashSet;
 import java.util.Set;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Represents the basic operations of a graph structure.
@@ -84,6 +86,92 @@ public interface IGraph<V>
      */
     Set<Edge<V>> edges();
 
+    /**
+     * Returns a set with the destinations of all edges leaving a vertex.
+     *
+     * The default implementation filters edges(), implementations should
+     * override it with a direct lookup.
+     *
+     * @param vertex the source vertex
+     * @return a vertex set, empty if the vertex is not in the graph
+     */
+    default Set<V> successors(V vertex)
+    {
+        Set<V> results = new HashSet<>();
+        forEachOutEdge(vertex, (destination, weight) -> results.add(destination));
+        return results;
+    }
+
+    /**
+     * Returns a set with the sources of all edges entering a vertex.
+     *
+     * The default implementation filters edges(), implementations should
+     * override it with a direct lookup.
+     *
+     * @param vertex the destination vertex
+     * @return a vertex set, empty if the vertex is not in the graph
+     */
+    default Set<V> predecessors(V vertex)
+    {
+        Set<V> results = new HashSet<>();
+        for (Edge<V> edge : edges())
+        {
+            if (edge.getDestination().equals(vertex))
+            {
+                results.add(edge.getSource());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the number of edges leaving a vertex.
+     *
+     * The default implementation counts the successors.
+     *
+     * @param vertex the source vertex
+     * @return the edge count, or 0 if the vertex is not in the graph
+     */
+    default int outDegree(V vertex)
+    {
+        return successors(vertex).size();
+    }
+
+    /**
+     * Returns the number of edges entering a vertex.
+     *
+     * The default implementation counts the predecessors.
+     *
+     * @param vertex the destination vertex
+     * @return the edge count, or 0 if the vertex is not in the graph
+     */
+    default int inDegree(V vertex)
+    {
+        return predecessors(vertex).size();
+    }
+
+    /**
+     * Passes the destination and weight of every edge leaving a vertex to
+     * the consumer, without building any collection. The graph must not be
+     * changed while this runs.
+     *
+     * The default implementation filters edges(), so it does build the edge
+     * set. Implementations should override it with a direct lookup.
+     *
+     * @param vertex the source vertex, nothing happens if it's not in the graph
+     * @param consumer receives the destination vertex and the edge weight
+     */
+    default void forEachOutEdge(V vertex, ObjIntConsumer<V> consumer)
+    {
+        for (Edge<V> edge : edges())
+        {
+            if (edge.getSource().equals(vertex))
+            {
+                consumer.accept(edge.getDestination(), edge.getWeight());
+            }
+        }
+    }
+
     /**
      * Removes a vertex from the graph.
      *
@@ -6,19 +6,50 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.Stack;
+import java.util.function.ObjIntConsumer;
 
 /**
+ * Directed graph stored as an adjacency matrix in flat arrays. Row i of the matrix
+ * is weights[i * matrixSize] to weights[i * matrixSize + matrixSize - 1], and a
+ * separate bitset marks which cells hold an edge, so "no edge" never has to be
+ * written into the weights. Each row of the bitset starts on a new long, rows are
+ * scanned 64 cells at a time. An unweighted graph keeps only the bitset.
+ * A flat array holds at most about 2^31 cells, so a weighted graph is limited to
+ * MAX_WEIGHTED_SIZE (46340) vertices and an unweighted one to MAX_UNWEIGHTED_SIZE.
+ *
  * @author Alex K.
  * @version 11/10/18
  * @param <V>
  */
 public class DirectedGraph<V> implements IGraph<V>
 {
+    /**
+     * Weight of every edge in an unweighted graph
+     */
+    public static final int UNWEIGHTED = 1;
+
+    /**
+     * Largest matrix size of a weighted graph, the weights need size * size ints
+     */
+    public static final int MAX_WEIGHTED_SIZE = 46340;
+
+    /**
+     * Largest matrix size of an unweighted graph, the bitset needs size * words(size) longs
+     */
+    public static final int MAX_UNWEIGHTED_SIZE = 370703;
+
+    //largest array most VMs can allocate
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
     private int matrixSize = 10;
     private int verticesSize;
     private int edgesSize;
-    private int [][]matrix;
-    private Bijection<Integer, V> bijection;
+    //row-major weights, only valid where the edge bit is set. null if unweighted
+    private int []weights;
+    //edge bits, wordsPerRow longs for every row
+    private long []edgeBits;
+    private int wordsPerRow;
+    private IntBijection<V> bijection;
     private Stack<Integer> emptyIndexes;
 
     /**
@@ -26,57 +57,148 @@ public class DirectedGraph<V> implements IGraph<V>
      */
     public DirectedGraph()
     {
-        matrix = new int[matrixSize][matrixSize];
-        emptyIndexes = new Stack<>();
-        bijection = new Bijection<>();
-        this.verticesSize = 0;
-        this.edgesSize = 0;
-        emptyMatrix(this.matrix);
+        this(10);
     }
 
     /**
      * Constructor that create matrix with Size elements
-     * @param size int initial size
+     * @param size int initial size, at most MAX_WEIGHTED_SIZE
      */
     public DirectedGraph(int size)
     {
+        this(size, true);
+    }
+
+    /**
+     * Constructor that create matrix with Size elements
+     * @param size int initial size, at most MAX_WEIGHTED_SIZE or MAX_UNWEIGHTED_SIZE
+     * @param weighted boolean false to store only which edges exist, 1 bit per cell.
+     *                 Weights passed to addEdge() are then dropped and every edge
+     *                 has weight UNWEIGHTED
+     */
+    public DirectedGraph(int size, boolean weighted)
+    {
+        if(size < 1)
+        {
+            throw new IllegalArgumentException("Size must be positive: " + size);
+        }
+        if(size > maxSize(weighted))
+        {
+            throw new IllegalArgumentException("A " + (weighted ? "weighted" : "unweighted") +
+                    " graph can't have more than " + maxSize(weighted) + " vertices: " + size);
+        }
         this.matrixSize = size;
-        matrix = new int[size][size];
+        this.wordsPerRow = words(size);
+        edgeBits = new long[cells(size, wordsPerRow)];
+        if(weighted)
+        {
+            weights = new int[cells(size, size)];
+        }
         emptyIndexes = new Stack<>();
-        bijection = new Bijection<>();
+        bijection = new IntBijection<>();
         this.verticesSize = 0;
         this.edgesSize = 0;
-        emptyMatrix(this.matrix);
     }
 
-    //clear matrix by setting all elements to -1
-    private void emptyMatrix(int[][] matrixRef)
+    //longs needed for a row of size bits
+    private static int words(int size)
+    {
+        return (size + 63) >>> 6;
+    }
+
+    private static int maxSize(boolean weighted)
     {
-        for(int i = 0; i < matrixRef.length; i++)
+        return weighted ? MAX_WEIGHTED_SIZE : MAX_UNWEIGHTED_SIZE;
+    }
+
+    //length of a flat rows x columns array, throws if one array can't hold it
+    private static int cells(int rows, int columns)
+    {
+        try
         {
-            for(int j = 0; j < matrixRef[i].length; j++)
+            int cells = Math.multiplyExact(rows, columns);
+            if(cells <= MAX_ARRAY_SIZE)
             {
-                //initialize matrix with -1. -1 means edge is missing
-                matrixRef[i][j] = -1;
+                return cells;
             }
         }
+        catch (ArithmeticException ex)
+        {
+            //same as too large
+        }
+        throw new IllegalStateException("Matrix of " + rows + " x " + columns + " cells doesn't fit in an array");
     }
 
-    //resize the matrix if it's out of space
+    //resize the matrix if it's out of space, rows are copied whole. Doubles the
+    //size up to the limit of a flat array, so every index fits in an int
     private void resize()
     {
-        matrixSize *= 2;
-        int [][]newMatrix = new int[matrixSize][matrixSize];
-        emptyMatrix(newMatrix);
-        for(int i = 0; i < matrix.length; i++)
+        int maxSize = maxSize(weights != null);
+        if(matrixSize >= maxSize)
+        {
+            throw new IllegalStateException("The graph is full, it can't have more than " +
+                    maxSize + " vertices");
+        }
+        int newSize = (int) Math.min(2L * matrixSize, maxSize);
+        int newWordsPerRow = words(newSize);
+        long []newBits = new long[cells(newSize, newWordsPerRow)];
+        for(int i = 0; i < matrixSize; i++)
+        {
+            System.arraycopy(edgeBits, i * wordsPerRow, newBits, i * newWordsPerRow, wordsPerRow);
+        }
+        if(weights != null)
+        {
+            int []newWeights = new int[cells(newSize, newSize)];
+            for(int i = 0; i < matrixSize; i++)
+            {
+                System.arraycopy(weights, i * matrixSize, newWeights, i * newSize, matrixSize);
+            }
+            weights = newWeights;
+        }
+        edgeBits = newBits;
+        wordsPerRow = newWordsPerRow;
+        matrixSize = newSize;
+    }
+
+    //bit operations on the cell of an edge
+    private boolean hasBit(int source, int destination)
+    {
+        return (edgeBits[source * wordsPerRow + (destination >>> 6)] & (1L << destination)) != 0;
+    }
+
+    private void setBit(int source, int destination)
+    {
+        edgeBits[source * wordsPerRow + (destination >>> 6)] |= 1L << destination;
+    }
+
+    private void clearBit(int source, int destination)
+    {
+        edgeBits[source * wordsPerRow + (destination >>> 6)] &= ~(1L << destination);
+    }
+
+    //first destination at or after from with an edge from source, or -1
+    private int nextDestination(int source, int from)
+    {
+        if(from >= matrixSize)
+        {
+            return -1;
+        }
+        int rowStart = source * wordsPerRow;
+        int word = from >>> 6;
+        //drop the bits before from in the first word
+        long bits = edgeBits[rowStart + word] & (-1L << from);
+        while(true)
         {
-            for(int j = 0; j < matrix.length; j++)
+            if(bits != 0)
+            {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if(++word == wordsPerRow)
             {
-                //initialize matrix with -1. -1 means edge is missing
-                newMatrix[i][j] = matrix[i][j];
+                return -1;
             }
+            bits = edgeBits[rowStart + word];
         }
-        matrix = newMatrix;
     }
 
     @Override
@@ -114,26 +236,7 @@ public class DirectedGraph<V> implements IGraph<V>
     @Override
     public boolean addEdge(V source, V destination, int weight)
     {
-        if(weight < 0)
-        {
-            throw new IllegalArgumentException("Negative weight is passed");
-        }
-        if(!containsEdge(source, destination))
-        {
-            Integer sourceIndex = bijection.getKey(source);
-            Integer destIndex = bijection.getKey(destination);
-            if(sourceIndex != null && destIndex != null)
-            {
-                matrix[sourceIndex][destIndex] = weight;
-                edgesSize++;
-                return true;
-            }
-            return false;
-        }
-        else
-        {
-            return false;
-        }
+        return addEdge(idOf(source), idOf(destination), weight);
     }
 
     @Override
@@ -157,48 +260,33 @@ public class DirectedGraph<V> implements IGraph<V>
     @Override
     public boolean containsEdge(V source, V destination)
     {
-        Integer sourceIndex = bijection.getKey(source);
-        Integer destIndex = bijection.getKey(destination);
-        if (sourceIndex != null && destIndex != null && sourceIndex < matrixSize && destIndex < matrixSize)
-        {
-            return matrix[sourceIndex][destIndex] != -1;
-        }
-
-        return false;
+        return containsEdge(idOf(source), idOf(destination));
     }
 
     @Override
     public int edgeWeight(V source, V destination)
     {
-        Integer sourceIndex = bijection.getKey(source);
-        Integer destIndex = bijection.getKey(destination);
-        if(sourceIndex != null && destIndex != null && sourceIndex <= matrixSize && destIndex <= matrixSize)
-        {
-            return matrix[sourceIndex][destIndex];
-        }
-        return -1;
+        return edgeWeight(idOf(source), idOf(destination));
     }
 
     @Override
     public Set<V> vertices()
     {
-        return new HashSet<>(bijection.valueSet());
+        return bijection.valueSet();
     }
 
     @Override
     public Set<Edge<V>> edges()
     {
         Set<Edge<V>> edges = new HashSet<>();
-        for (int i = 0; i < verticesSize; i++)
+        //indexes in use are below this, removed vertices leave holes
+        int indexLimit = verticesSize + emptyIndexes.size();
+        for (int i = 0; i < indexLimit; i++)
         {
-            for (int j = 0; j < verticesSize; j++)
+            V source = bijection.getValue(i);
+            for (int j = nextDestination(i, 0); j != -1; j = nextDestination(i, j + 1))
             {
-                if(matrix[i][j] != -1)
-                {
-                    V source = bijection.getValue(i);
-                    V dest = bijection.getValue(j);
-                    edges.add(new Edge<>(source, dest, matrix[i][j]));
-                }
+                edges.add(new Edge<>(source, bijection.getValue(j), edgeWeight(i, j)));
             }
         }
         return edges;
@@ -207,49 +295,222 @@ public class DirectedGraph<V> implements IGraph<V>
     @Override
     public boolean removeVertex(V vertex)
     {
-        if (containsVertex(vertex))
+        int vertexIndex = idOf(vertex);
+        if(vertexIndex == -1)
+        {
+            return false;
+        }
+        //out edges, the whole row at once
+        int rowStart = vertexIndex * wordsPerRow;
+        for (int word = rowStart; word < rowStart + wordsPerRow; word++)
+        {
+            edgesSize -= Long.bitCount(edgeBits[word]);
+            edgeBits[word] = 0;
+        }
+        //in edges, one bit per row
+        for (int i = 0; i < matrixSize; i++)
         {
-            Integer vertexIndex = bijection.getKey(vertex);
-            if(vertexIndex != null)
+            if(hasBit(i, vertexIndex))
             {
-                for (int i = 0; i < matrixSize; i++)
-                {
-                    matrix[i][vertexIndex] = -1;
-                }
-                for (int j = 0; j < matrix[vertexIndex].length; j++)
+                clearBit(i, vertexIndex);
+                edgesSize--;
+            }
+        }
+        bijection.removeValue(vertex);
+        emptyIndexes.push(vertexIndex);
+        verticesSize--;
+        return true;
+    }
+
+    @Override
+    public boolean removeEdge(V source, V destination)
+    {
+        return removeEdge(idOf(source), idOf(destination));
+    }
+
+    //neighbors, rows are scanned through the edge bits and columns one bit per row
+
+    @Override
+    public Set<V> successors(V vertex)
+    {
+        Set<V> results = new HashSet<>();
+        forEachOutEdge(vertex, (destination, weight) -> results.add(destination));
+        return results;
+    }
+
+    @Override
+    public Set<V> predecessors(V vertex)
+    {
+        Set<V> results = new HashSet<>();
+        int destination = idOf(vertex);
+        if(destination != -1)
+        {
+            for (int i = 0; i < matrixSize; i++)
+            {
+                if(hasBit(i, destination))
                 {
-                    matrix[vertexIndex][j] = -1;
+                    results.add(bijection.getValue(i));
                 }
-                bijection.removeValue(vertex);
-                emptyIndexes.push(vertexIndex);
-                verticesSize--;
-                return true;
             }
         }
-        return false;
+        return results;
     }
 
     @Override
-    public boolean removeEdge(V source, V destination)
+    public int outDegree(V vertex)
     {
-        Integer sourceIndex = bijection.getKey(source);
-        Integer destIndex = bijection.getKey(destination);
-        if (sourceIndex != null && destIndex != null && sourceIndex <= matrixSize && destIndex <= matrixSize)
+        int source = idOf(vertex);
+        if(source == -1)
         {
-            this.matrix[sourceIndex][destIndex] = -1;
-            edgesSize--;
-            return true;
+            return 0;
+        }
+        int degree = 0;
+        int rowStart = source * wordsPerRow;
+        for (int word = rowStart; word < rowStart + wordsPerRow; word++)
+        {
+            degree += Long.bitCount(edgeBits[word]);
+        }
+        return degree;
+    }
+
+    @Override
+    public int inDegree(V vertex)
+    {
+        int destination = idOf(vertex);
+        if(destination == -1)
+        {
+            return 0;
+        }
+        int degree = 0;
+        for (int i = 0; i < matrixSize; i++)
+        {
+            if(hasBit(i, destination))
+            {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    @Override
+    public void forEachOutEdge(V vertex, ObjIntConsumer<V> consumer)
+    {
+        int source = idOf(vertex);
+        if(source == -1)
+        {
+            return;
+        }
+        for (int j = nextDestination(source, 0); j != -1; j = nextDestination(source, j + 1))
+        {
+            consumer.accept(bijection.getValue(j), edgeWeight(source, j));
+        }
+    }
+
+    //vertex handles, algorithms can work on the int indexes without any lookups
+
+    /**
+     * Returns the index of a vertex, valid until the vertex is removed
+     * @param vertex V vertex to search for
+     * @return int index of the vertex, or -1 if it's not in the graph
+     */
+    public int idOf(V vertex)
+    {
+        return bijection.getKey(vertex);
+    }
+
+    /**
+     * Returns the vertex at an index
+     * @param id int index of the vertex
+     * @return V vertex, or null if no vertex has the index
+     */
+    public V vertexOf(int id)
+    {
+        return bijection.getValue(id);
+    }
+
+    /**
+     * Adds an edge between the vertices at two indexes
+     * @param source int index of the source vertex
+     * @param destination int index of the destination vertex
+     * @param weight int edge weight, throws IllegalArgumentException if it's negative
+     * @return true if the edge was added, false if it exists or an index is not in use
+     */
+    public boolean addEdge(int source, int destination, int weight)
+    {
+        if(weight < 0)
+        {
+            throw new IllegalArgumentException("Negative weight is passed");
         }
-        return false;
+        if(!isVertex(source) || !isVertex(destination) || hasBit(source, destination))
+        {
+            return false;
+        }
+        setBit(source, destination);
+        if(weights != null)
+        {
+            weights[source * matrixSize + destination] = weight;
+        }
+        edgesSize++;
+        return true;
+    }
+
+    /**
+     * Reports whether there is an edge between the vertices at two indexes
+     * @param source int index of the source vertex
+     * @param destination int index of the destination vertex
+     * @return true if the edge is in the graph, or false otherwise
+     */
+    public boolean containsEdge(int source, int destination)
+    {
+        return edgeWeight(source, destination) != -1;
+    }
+
+    /**
+     * Returns the weight of the edge between the vertices at two indexes
+     * @param source int index of the source vertex
+     * @param destination int index of the destination vertex
+     * @return int edge weight, or -1 if the edge is not found
+     */
+    public int edgeWeight(int source, int destination)
+    {
+        if(!isVertex(source) || !isVertex(destination) || !hasBit(source, destination))
+        {
+            return -1;
+        }
+        return (weights == null) ? UNWEIGHTED : weights[source * matrixSize + destination];
+    }
+
+    /**
+     * Removes the edge between the vertices at two indexes
+     * @param source int index of the source vertex
+     * @param destination int index of the destination vertex
+     * @return true if the edge was found and removed, otherwise false
+     */
+    public boolean removeEdge(int source, int destination)
+    {
+        if(!isVertex(source) || !isVertex(destination) || !hasBit(source, destination))
+        {
+            return false;
+        }
+        clearBit(source, destination);
+        edgesSize--;
+        return true;
+    }
+
+    private boolean isVertex(int id)
+    {
+        return id >= 0 && id < matrixSize && bijection.containsKey(id);
     }
 
     @Override
     public void clear()
     {
-        emptyMatrix(this.matrix);
+        //weights are only read where a bit is set, so they can stay
+        Arrays.fill(edgeBits, 0);
         this.edgesSize = 0;
         this.verticesSize = 0;
         bijection.clear();
+        emptyIndexes.clear();
     }
 
     @Override
@@ -259,7 +520,7 @@ public class DirectedGraph<V> implements IGraph<V>
                 "matrixSize=" + matrixSize +
                 ", verticesSize=" + verticesSize +
                 ", edgesSize=" + edgesSize +
-                ", matrix=" + Arrays.toString(matrix) +
+                ", weighted=" + (weights != null) +
                 ", bijection=" + bijection +
                 ", emptyIndexes=" + emptyIndexes +
                 '}';
@@ -271,6 +532,6 @@ public class DirectedGraph<V> implements IGraph<V>
      */
     public int getMatrixSize()
     {
-        return this.matrix.length;
+        return this.matrixSize;
     }
 }
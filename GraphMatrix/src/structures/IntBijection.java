@@ -0,0 +1,292 @@
+package structures;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A one-to-one correspondence between non-negative int keys and values, like
+ * Bijection&lt;Integer, V&gt; without boxing the keys. Values are found by key with
+ * an array lookup, keys are found by value through an open addressing hash table
+ * that stores the keys as plain ints. Keys are meant to be small dense indexes.
+ *
+ * @author Alex K.
+ * @version 1.0
+ * @param <V> the type of the values
+ */
+public class IntBijection<V>
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    //values by key, null for unused keys
+    private Object[] values;
+    //hash table from value to key, linear probing, capacity is a power of two
+    private Object[] tableValues;
+    private int[] tableKeys;
+    private int size;
+
+    /**
+     * Creates a new IntBijection.
+     */
+    public IntBijection()
+    {
+        values = new Object[INITIAL_CAPACITY];
+        tableValues = new Object[INITIAL_CAPACITY * 2];
+        tableKeys = new int[INITIAL_CAPACITY * 2];
+    }
+
+    /**
+     * Adds a key - value pair to the map. Keys and values must both be unique.
+     *
+     * @param key the new key, not negative
+     * @param value the new value, not null
+     * @return true if the key - value pair was added to the map, or false otherwise
+     */
+    public boolean add(int key, V value)
+    {
+        if(key < 0)
+        {
+            throw new IllegalArgumentException("Negative key: " + key);
+        }
+        if(value == null)
+        {
+            throw new IllegalArgumentException("Null values are not allowed");
+        }
+        if(containsKey(key) || containsValue(value))
+        {
+            return false;
+        }
+        if(key >= values.length)
+        {
+            values = Arrays.copyOf(values, Math.max(key + 1, values.length * 2));
+        }
+        //keep the table at most half full
+        if((size + 1) * 2 > tableValues.length)
+        {
+            rehash(tableValues.length * 2);
+        }
+        values[key] = value;
+        insert(value, key);
+        size++;
+        return true;
+    }
+
+    /**
+     * Retrieves a value, given a key.
+     *
+     * @param key the key to search for
+     * @return a value, or null if none is found
+     */
+    @SuppressWarnings("unchecked")
+    public V getValue(int key)
+    {
+        if(key < 0 || key >= values.length)
+        {
+            return null;
+        }
+        return (V) values[key];
+    }
+
+    /**
+     * Retrieves a key, given a value.
+     *
+     * @param value the value to search for
+     * @return a key, or -1 if none is found
+     */
+    public int getKey(V value)
+    {
+        if(value == null)
+        {
+            return -1;
+        }
+        int slot = find(value);
+        return (tableValues[slot] == null) ? -1 : tableKeys[slot];
+    }
+
+    /**
+     * Reports whether a key is in the map.
+     *
+     * @param key the key to search for
+     * @return true if the key is found, or otherwise false
+     */
+    public boolean containsKey(int key)
+    {
+        return getValue(key) != null;
+    }
+
+    /**
+     * Reports whether a value is in the map.
+     *
+     * @param value the value to search for
+     * @return true if the value is found, or otherwise false
+     */
+    public boolean containsValue(V value)
+    {
+        return getKey(value) != -1;
+    }
+
+    /**
+     * Returns a new set with all values in the map.
+     * @return a set of values
+     */
+    @SuppressWarnings("unchecked")
+    public Set<V> valueSet()
+    {
+        Set<V> results = new HashSet<>();
+        for(Object value : tableValues)
+        {
+            if(value != null)
+            {
+                results.add((V) value);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Removes a key-value pair from the map, given a key.
+     * @param key the key to search for
+     * @return true if the key-value pair was found and removed, otherwise false
+     */
+    public boolean removeKey(int key)
+    {
+        V value = getValue(key);
+        if(value == null)
+        {
+            return false;
+        }
+        remove(key, value);
+        return true;
+    }
+
+    /**
+     * Removes a key-value pair from the map, given a value.
+     * @param value the value to search for
+     * @return true if the key-value pair was found and removed, otherwise false
+     */
+    public boolean removeValue(V value)
+    {
+        int key = getKey(value);
+        if(key == -1)
+        {
+            return false;
+        }
+        remove(key, value);
+        return true;
+    }
+
+    /**
+     * Returns the number of key-value pairs in the map.
+     * @return int size of the map
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Removes all key-value pairs from the map.
+     */
+    public void clear()
+    {
+        Arrays.fill(values, null);
+        Arrays.fill(tableValues, null);
+        size = 0;
+    }
+
+    private void remove(int key, V value)
+    {
+        values[key] = null;
+        int slot = find(value);
+        tableValues[slot] = null;
+        //backward shift: move later entries of the probe run into the hole, so
+        //lookups never stop early at it and no tombstones are needed
+        int mask = tableValues.length - 1;
+        int next = (slot + 1) & mask;
+        while(tableValues[next] != null)
+        {
+            int home = hash(tableValues[next]) & mask;
+            //move the entry if it's home is not between the hole and it's slot
+            if(((next - home) & mask) >= ((next - slot) & mask))
+            {
+                tableValues[slot] = tableValues[next];
+                tableKeys[slot] = tableKeys[next];
+                tableValues[next] = null;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        size--;
+    }
+
+    //slot holding the value, or the empty slot where it would go
+    private int find(Object value)
+    {
+        int mask = tableValues.length - 1;
+        int slot = hash(value) & mask;
+        while(tableValues[slot] != null && !tableValues[slot].equals(value))
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(Object value, int key)
+    {
+        int slot = find(value);
+        tableValues[slot] = value;
+        tableKeys[slot] = key;
+    }
+
+    private void rehash(int capacity)
+    {
+        Object[] oldValues = tableValues;
+        int[] oldKeys = tableKeys;
+        tableValues = new Object[capacity];
+        tableKeys = new int[capacity];
+        for(int i = 0; i < oldValues.length; i++)
+        {
+            if(oldValues[i] != null)
+            {
+                insert(oldValues[i], oldKeys[i]);
+            }
+        }
+    }
+
+    //Fibonacci hashing. Small sequential hash codes, like those of Integer vertices,
+    //would otherwise fill one long probe run that every removal has to shift
+    private static int hash(Object value)
+    {
+        int hash = value.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder();
+
+        boolean first = true;
+        for(int key = 0; key < values.length; key++)
+        {
+            if(values[key] == null)
+            {
+                continue;
+            }
+            if(!first)
+            {
+                builder.append(", ");
+            }
+            else
+            {
+                first = false;
+            }
+
+            builder.append(key);
+            builder.append(" - ");
+            builder.append(values[key]);
+        }
+
+        return builder.toString();
+    }
+}
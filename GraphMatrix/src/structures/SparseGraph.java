@@ -0,0 +1,777 @@
+package structures;
+
+import graphs.Edge;
+import graphs.IGraph;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Stack;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Directed graph for sparse graphs, stored in compressed sparse row (CSR) form.
+ * The out edges of vertex i are columns[rowOffsets[i]] to columns[rowOffsets[i + 1] - 1],
+ * sorted by destination, with their weights in the same slots of weights. Memory and
+ * edges() are O(V + E) instead of O(V^2) for the matrix in DirectedGraph.
+ *
+ * CSR arrays can't grow in place, so changes are buffered: removed edges become
+ * tombstones (weight -1) and new edges go to a small per vertex hash table keyed by
+ * destination, so a vertex gaining many edges at once still finds each one in O(1).
+ * Once the buffered changes reach a quarter of the edges everything is merged into
+ * new arrays.
+ *
+ * In edges are indexed by destination the same way, in compressed sparse column (CSC)
+ * form rebuilt at every compaction plus a per vertex list of sources added since. The
+ * index is not updated on removals, its entries are checked against the rows instead.
+ *
+ * @author Alex K.
+ * @version 1.0
+ * @param <V>
+ */
+public class SparseGraph<V> implements IGraph<V>
+{
+    private static final int TOMBSTONE = -1;
+    private static final int MIN_PENDING = 64;
+    private static final int INITIAL_CAPACITY = 10;
+    private static final int EMPTY = -1;
+
+    private int verticesSize;
+    private int edgesSize;
+    private IntBijection<V> bijection;
+    private Stack<Integer> emptyIndexes;
+    //every index below this one was handed out at some point
+    private int indexLimit;
+
+    //compacted edges, rowOffsets covers the vertices that existed at the last compaction
+    private int rows;
+    private int[] rowOffsets;
+    private int[] columns;
+    private int[] weights;
+    private int tombstones;
+
+    //edges added since the last compaction. Each row is an open addressing table
+    //with linear probing, EMPTY marks a free slot and capacity is a power of two
+    private int[][] deltaColumns;
+    private int[][] deltaWeights;
+    private int[] deltaSizes;
+    private int deltaEdges;
+
+    //in edges of the compacted arrays: for destination i, inSources[inOffsets[i]] to
+    //inSources[inOffsets[i + 1] - 1] with the slots of the edges in columns and weights
+    private int[] inOffsets;
+    private int[] inSources;
+    private int[] inSlots;
+    //sources of the edges added to the delta since the last compaction, unsorted
+    private int[][] deltaSources;
+    private int[] deltaSourceSizes;
+    //delta sources whose edge was removed again
+    private int staleSources;
+
+    //edge counts per vertex
+    private int[] outDegrees;
+    private int[] inDegrees;
+
+    /**
+     * Constructor that creates an empty graph
+     */
+    public SparseGraph()
+    {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor that creates an empty graph with room for capacity vertices
+     * @param capacity int initial number of vertices
+     */
+    public SparseGraph(int capacity)
+    {
+        if(capacity < 1)
+        {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        bijection = new IntBijection<>();
+        emptyIndexes = new Stack<>();
+        deltaColumns = new int[capacity][];
+        deltaWeights = new int[capacity][];
+        deltaSizes = new int[capacity];
+        deltaSources = new int[capacity][];
+        deltaSourceSizes = new int[capacity];
+        outDegrees = new int[capacity];
+        inDegrees = new int[capacity];
+        rowOffsets = new int[1];
+        columns = new int[0];
+        weights = new int[0];
+        inOffsets = new int[1];
+        inSources = new int[0];
+        inSlots = new int[0];
+    }
+
+    @Override
+    public boolean addVertex(V vertex)
+    {
+        if(containsVertex(vertex))
+        {
+            return false;
+        }
+        int index = nextIndex();
+        bijection.add(index, vertex);
+        verticesSize++;
+        return true;
+    }
+
+    //returns next index to use. Reuses indexes of removed vertices first
+    private int nextIndex()
+    {
+        if(!emptyIndexes.isEmpty())
+        {
+            return emptyIndexes.pop();
+        }
+        if(indexLimit == deltaSizes.length)
+        {
+            int capacity = deltaSizes.length * 2;
+            deltaColumns = Arrays.copyOf(deltaColumns, capacity);
+            deltaWeights = Arrays.copyOf(deltaWeights, capacity);
+            deltaSizes = Arrays.copyOf(deltaSizes, capacity);
+            deltaSources = Arrays.copyOf(deltaSources, capacity);
+            deltaSourceSizes = Arrays.copyOf(deltaSourceSizes, capacity);
+            outDegrees = Arrays.copyOf(outDegrees, capacity);
+            inDegrees = Arrays.copyOf(inDegrees, capacity);
+        }
+        return indexLimit++;
+    }
+
+    @Override
+    public boolean addEdge(V source, V destination, int weight)
+    {
+        return addEdge(idOf(source), idOf(destination), weight);
+    }
+
+    //adds an edge that is not in the delta table of the source
+    private void insertDelta(int source, int destination, int weight)
+    {
+        if(deltaColumns[source] == null)
+        {
+            deltaColumns[source] = newDeltaRow(8);
+            deltaWeights[source] = new int[8];
+        }
+        else if((deltaSizes[source] + 1) * 2 > deltaColumns[source].length)
+        {
+            growDelta(source);
+        }
+        int[] row = deltaColumns[source];
+        int slot = probe(row, destination);
+        row[slot] = destination;
+        deltaWeights[source][slot] = weight;
+        deltaSizes[source]++;
+        deltaEdges++;
+
+        int sources = deltaSourceSizes[destination];
+        if(deltaSources[destination] == null)
+        {
+            deltaSources[destination] = new int[4];
+        }
+        else if(sources == deltaSources[destination].length)
+        {
+            deltaSources[destination] = Arrays.copyOf(deltaSources[destination], sources * 2);
+        }
+        deltaSources[destination][sources] = source;
+        deltaSourceSizes[destination]++;
+    }
+
+    @Override
+    public int vertexSize()
+    {
+        return this.verticesSize;
+    }
+
+    @Override
+    public int edgeSize()
+    {
+        return this.edgesSize;
+    }
+
+    @Override
+    public boolean containsVertex(V vertex)
+    {
+        return bijection.containsValue(vertex);
+    }
+
+    @Override
+    public boolean containsEdge(V source, V destination)
+    {
+        return containsEdge(idOf(source), idOf(destination));
+    }
+
+    @Override
+    public int edgeWeight(V source, V destination)
+    {
+        return edgeWeight(idOf(source), idOf(destination));
+    }
+
+    //slot of the edge in the compacted arrays, tombstones included, or -1
+    private int findCompacted(int source, int destination)
+    {
+        if(source >= rows)
+        {
+            return -1;
+        }
+        int slot = Arrays.binarySearch(columns, rowOffsets[source], rowOffsets[source + 1], destination);
+        return (slot >= 0) ? slot : -1;
+    }
+
+    //slot of the edge in the delta table of the source, or -1
+    private int findDelta(int source, int destination)
+    {
+        if(deltaSizes[source] == 0)
+        {
+            return -1;
+        }
+        int[] row = deltaColumns[source];
+        int slot = probe(row, destination);
+        return (row[slot] == EMPTY) ? -1 : slot;
+    }
+
+    //slot holding the destination, or the empty slot where it would go
+    private static int probe(int[] row, int destination)
+    {
+        int mask = row.length - 1;
+        int slot = home(destination, mask);
+        while(row[slot] != EMPTY && row[slot] != destination)
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    //Fibonacci hashing, destinations are small dense indexes. The top bits of the
+    //product are the best mixed ones, so those are used
+    private static int home(int destination, int mask)
+    {
+        return (destination * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(mask);
+    }
+
+    private static int[] newDeltaRow(int capacity)
+    {
+        int[] row = new int[capacity];
+        Arrays.fill(row, EMPTY);
+        return row;
+    }
+
+    private void growDelta(int source)
+    {
+        int[] oldColumns = deltaColumns[source];
+        int[] oldWeights = deltaWeights[source];
+        int[] row = newDeltaRow(oldColumns.length * 2);
+        int[] rowWeights = new int[row.length];
+        for(int i = 0; i < oldColumns.length; i++)
+        {
+            if(oldColumns[i] != EMPTY)
+            {
+                int slot = probe(row, oldColumns[i]);
+                row[slot] = oldColumns[i];
+                rowWeights[slot] = oldWeights[i];
+            }
+        }
+        deltaColumns[source] = row;
+        deltaWeights[source] = rowWeights;
+    }
+
+    //empties the slot, moving later entries of the probe run back into the hole
+    //so lookups never stop early at it, like IntBijection
+    private void removeDelta(int source, int slot)
+    {
+        int[] row = deltaColumns[source];
+        int[] rowWeights = deltaWeights[source];
+        int mask = row.length - 1;
+        row[slot] = EMPTY;
+        int next = (slot + 1) & mask;
+        while(row[next] != EMPTY)
+        {
+            int home = home(row[next], mask);
+            if(((next - home) & mask) >= ((next - slot) & mask))
+            {
+                row[slot] = row[next];
+                rowWeights[slot] = rowWeights[next];
+                row[next] = EMPTY;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        deltaSizes[source]--;
+        deltaEdges--;
+    }
+
+    @Override
+    public Set<V> vertices()
+    {
+        return bijection.valueSet();
+    }
+
+    @Override
+    public Set<Edge<V>> edges()
+    {
+        Set<Edge<V>> edges = new HashSet<>();
+        for(int i = 0; i < indexLimit; i++)
+        {
+            if(i < rows)
+            {
+                for(int slot = rowOffsets[i]; slot < rowOffsets[i + 1]; slot++)
+                {
+                    if(weights[slot] != TOMBSTONE)
+                    {
+                        edges.add(new Edge<>(bijection.getValue(i), bijection.getValue(columns[slot]), weights[slot]));
+                    }
+                }
+            }
+            for(int j = 0; deltaSizes[i] > 0 && j < deltaColumns[i].length; j++)
+            {
+                if(deltaColumns[i][j] != EMPTY)
+                {
+                    edges.add(new Edge<>(bijection.getValue(i), bijection.getValue(deltaColumns[i][j]), deltaWeights[i][j]));
+                }
+            }
+        }
+        return edges;
+    }
+
+    @Override
+    public boolean removeVertex(V vertex)
+    {
+        int vertexIndex = idOf(vertex);
+        if(vertexIndex == -1)
+        {
+            return false;
+        }
+        //out edges
+        if(vertexIndex < rows)
+        {
+            for(int slot = rowOffsets[vertexIndex]; slot < rowOffsets[vertexIndex + 1]; slot++)
+            {
+                if(weights[slot] != TOMBSTONE)
+                {
+                    weights[slot] = TOMBSTONE;
+                    inDegrees[columns[slot]]--;
+                    tombstones++;
+                    edgesSize--;
+                }
+            }
+        }
+        for(int j = 0; deltaSizes[vertexIndex] > 0 && j < deltaColumns[vertexIndex].length; j++)
+        {
+            if(deltaColumns[vertexIndex][j] != EMPTY)
+            {
+                inDegrees[deltaColumns[vertexIndex][j]]--;
+            }
+        }
+        edgesSize -= deltaSizes[vertexIndex];
+        deltaEdges -= deltaSizes[vertexIndex];
+        staleSources += deltaSizes[vertexIndex];
+        deltaSizes[vertexIndex] = 0;
+        deltaColumns[vertexIndex] = null;
+        deltaWeights[vertexIndex] = null;
+        outDegrees[vertexIndex] = 0;
+
+        //in edges, from the column index
+        if(vertexIndex < rows)
+        {
+            for(int k = inOffsets[vertexIndex]; k < inOffsets[vertexIndex + 1]; k++)
+            {
+                int slot = inSlots[k];
+                if(weights[slot] != TOMBSTONE)
+                {
+                    weights[slot] = TOMBSTONE;
+                    outDegrees[inSources[k]]--;
+                    inDegrees[vertexIndex]--;
+                    tombstones++;
+                    edgesSize--;
+                }
+            }
+        }
+        for(int k = 0; k < deltaSourceSizes[vertexIndex]; k++)
+        {
+            removeCell(deltaSources[vertexIndex][k], vertexIndex);
+        }
+        staleSources -= deltaSourceSizes[vertexIndex];//the list itself goes away
+        deltaSourceSizes[vertexIndex] = 0;
+        deltaSources[vertexIndex] = null;
+        bijection.removeValue(vertex);
+        emptyIndexes.push(vertexIndex);
+        verticesSize--;
+        compactIfNeeded();
+        return true;
+    }
+
+    @Override
+    public boolean removeEdge(V source, V destination)
+    {
+        return removeEdge(idOf(source), idOf(destination));
+    }
+
+    //neighbors, out edges come from the row and the delta, degrees are kept as counts
+
+    @Override
+    public Set<V> successors(V vertex)
+    {
+        Set<V> results = new HashSet<>();
+        forEachOutEdge(vertex, (destination, weight) -> results.add(destination));
+        return results;
+    }
+
+    @Override
+    public Set<V> predecessors(V vertex)
+    {
+        Set<V> results = new HashSet<>();
+        int destination = idOf(vertex);
+        if(destination == -1)
+        {
+            return results;
+        }
+        if(destination < rows)
+        {
+            for(int k = inOffsets[destination]; k < inOffsets[destination + 1]; k++)
+            {
+                if(weights[inSlots[k]] != TOMBSTONE)
+                {
+                    results.add(bijection.getValue(inSources[k]));
+                }
+            }
+        }
+        //entries whose edge was removed are skipped, a removed and added again
+        //edge has two entries but the set keeps one
+        for(int k = 0; k < deltaSourceSizes[destination]; k++)
+        {
+            int source = deltaSources[destination][k];
+            if(findDelta(source, destination) >= 0)
+            {
+                results.add(bijection.getValue(source));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public int outDegree(V vertex)
+    {
+        int source = idOf(vertex);
+        return (source == -1) ? 0 : outDegrees[source];
+    }
+
+    @Override
+    public int inDegree(V vertex)
+    {
+        int destination = idOf(vertex);
+        return (destination == -1) ? 0 : inDegrees[destination];
+    }
+
+    @Override
+    public void forEachOutEdge(V vertex, ObjIntConsumer<V> consumer)
+    {
+        int source = idOf(vertex);
+        if(source == -1)
+        {
+            return;
+        }
+        if(source < rows)
+        {
+            for(int slot = rowOffsets[source]; slot < rowOffsets[source + 1]; slot++)
+            {
+                if(weights[slot] != TOMBSTONE)
+                {
+                    consumer.accept(bijection.getValue(columns[slot]), weights[slot]);
+                }
+            }
+        }
+        for(int j = 0; deltaSizes[source] > 0 && j < deltaColumns[source].length; j++)
+        {
+            if(deltaColumns[source][j] != EMPTY)
+            {
+                consumer.accept(bijection.getValue(deltaColumns[source][j]), deltaWeights[source][j]);
+            }
+        }
+    }
+
+    //vertex handles, algorithms can work on the int indexes without any lookups
+
+    /**
+     * Returns the index of a vertex, valid until the vertex is removed
+     * @param vertex V vertex to search for
+     * @return int index of the vertex, or -1 if it's not in the graph
+     */
+    public int idOf(V vertex)
+    {
+        return bijection.getKey(vertex);
+    }
+
+    /**
+     * Returns the vertex at an index
+     * @param id int index of the vertex
+     * @return V vertex, or null if no vertex has the index
+     */
+    public V vertexOf(int id)
+    {
+        return bijection.getValue(id);
+    }
+
+    /**
+     * Adds an edge between the vertices at two indexes
+     * @param source int index of the source vertex
+     * @param destination int index of the destination vertex
+     * @param weight int edge weight, throws IllegalArgumentException if it's negative
+     * @return true if the edge was added, false if it exists or an index is not in use
+     */
+    public boolean addEdge(int source, int destination, int weight)
+    {
+        if(weight < 0)
+        {
+            throw new IllegalArgumentException("Negative weight is passed");
+        }
+        if(!bijection.containsKey(source) || !bijection.containsKey(destination))
+        {
+            return false;
+        }
+        int slot = findCompacted(source, destination);
+        if(slot >= 0)
+        {
+            if(weights[slot] != TOMBSTONE)
+            {
+                return false;
+            }
+            //the edge was removed since the last compaction, bring it back in place
+            weights[slot] = weight;
+            tombstones--;
+        }
+        else if(findDelta(source, destination) >= 0)
+        {
+            return false;
+        }
+        else
+        {
+            insertDelta(source, destination, weight);
+        }
+        outDegrees[source]++;
+        inDegrees[destination]++;
+        edgesSize++;
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * Reports whether there is an edge between the vertices at two indexes
+     * @param source int index of the source vertex
+     * @param destination int index of the destination vertex
+     * @return true if the edge is in the graph, or false otherwise
+     */
+    public boolean containsEdge(int source, int destination)
+    {
+        return edgeWeight(source, destination) != -1;
+    }
+
+    /**
+     * Returns the weight of the edge between the vertices at two indexes
+     * @param source int index of the source vertex
+     * @param destination int index of the destination vertex
+     * @return int edge weight, or -1 if the edge is not found
+     */
+    public int edgeWeight(int source, int destination)
+    {
+        if(!bijection.containsKey(source) || !bijection.containsKey(destination))
+        {
+            return -1;
+        }
+        int slot = findCompacted(source, destination);
+        if(slot >= 0)
+        {
+            return weights[slot];//-1 for a tombstone
+        }
+        slot = findDelta(source, destination);
+        return (slot >= 0) ? deltaWeights[source][slot] : -1;
+    }
+
+    /**
+     * Removes the edge between the vertices at two indexes
+     * @param source int index of the source vertex
+     * @param destination int index of the destination vertex
+     * @return true if the edge was found and removed, otherwise false
+     */
+    public boolean removeEdge(int source, int destination)
+    {
+        if(!bijection.containsKey(source) || !bijection.containsKey(destination)
+                || !removeCell(source, destination))
+        {
+            return false;
+        }
+        compactIfNeeded();
+        return true;
+    }
+
+    //removes the edge without compacting
+    private boolean removeCell(int source, int destination)
+    {
+        int slot = findCompacted(source, destination);
+        if(slot >= 0 && weights[slot] != TOMBSTONE)
+        {
+            weights[slot] = TOMBSTONE;
+            tombstones++;
+        }
+        else
+        {
+            slot = findDelta(source, destination);
+            if(slot < 0)
+            {
+                return false;
+            }
+            //the source stays in the delta sources of the destination
+            removeDelta(source, slot);
+            staleSources++;
+        }
+        outDegrees[source]--;
+        inDegrees[destination]--;
+        edgesSize--;
+        return true;
+    }
+
+    @Override
+    public void clear()
+    {
+        bijection.clear();
+        emptyIndexes.clear();
+        Arrays.fill(deltaColumns, 0, indexLimit, null);
+        Arrays.fill(deltaWeights, 0, indexLimit, null);
+        Arrays.fill(deltaSizes, 0, indexLimit, 0);
+        Arrays.fill(deltaSources, 0, indexLimit, null);
+        Arrays.fill(deltaSourceSizes, 0, indexLimit, 0);
+        Arrays.fill(outDegrees, 0, indexLimit, 0);
+        Arrays.fill(inDegrees, 0, indexLimit, 0);
+        rows = 0;
+        rowOffsets = new int[1];
+        columns = new int[0];
+        weights = new int[0];
+        inOffsets = new int[1];
+        inSources = new int[0];
+        inSlots = new int[0];
+        indexLimit = 0;
+        tombstones = 0;
+        deltaEdges = 0;
+        staleSources = 0;
+        verticesSize = 0;
+        edgesSize = 0;
+    }
+
+    //merges once the buffered changes are a large part of the graph, so the
+    //O(V + E) rebuild is amortized over at least a quarter as many changes
+    private void compactIfNeeded()
+    {
+        if(deltaEdges + tombstones + staleSources > Math.max(MIN_PENDING, edgesSize / 4))
+        {
+            compact();
+        }
+    }
+
+    /**
+     * Merges the buffered edge changes into the compressed arrays. Happens on its
+     * own as the graph changes, call it after loading a graph to make it read optimal
+     */
+    public void compact()
+    {
+        int[] newOffsets = new int[indexLimit + 1];
+        int[] newColumns = new int[edgesSize];
+        int[] newWeights = new int[edgesSize];
+        //delta edge packed as destination << 32 | weight, so sorting sorts by destination
+        long[] delta = new long[16];
+        int position = 0;
+        for(int i = 0; i < indexLimit; i++)
+        {
+            newOffsets[i] = position;
+            int count = 0;
+            if(deltaSizes[i] > 0)
+            {
+                if(delta.length < deltaSizes[i])
+                {
+                    delta = new long[deltaSizes[i]];
+                }
+                for(int j = 0; j < deltaColumns[i].length; j++)
+                {
+                    if(deltaColumns[i][j] != EMPTY)
+                    {
+                        delta[count++] = ((long) deltaColumns[i][j] << 32) | deltaWeights[i][j];
+                    }
+                }
+                Arrays.sort(delta, 0, count);
+            }
+            //the row is sorted by destination too, merge them
+            int slot = (i < rows) ? rowOffsets[i] : 0;
+            int rowEnd = (i < rows) ? rowOffsets[i + 1] : 0;
+            int j = 0;
+            while(slot < rowEnd || j < count)
+            {
+                if(slot < rowEnd && weights[slot] == TOMBSTONE)
+                {
+                    slot++;
+                }
+                else if(j == count || (slot < rowEnd && columns[slot] < (int) (delta[j] >>> 32)))
+                {
+                    newColumns[position] = columns[slot];
+                    newWeights[position++] = weights[slot++];
+                }
+                else
+                {
+                    newColumns[position] = (int) (delta[j] >>> 32);
+                    newWeights[position++] = (int) delta[j++];
+                }
+            }
+            deltaSizes[i] = 0;
+            deltaColumns[i] = null;
+            deltaWeights[i] = null;
+            deltaSourceSizes[i] = 0;
+            deltaSources[i] = null;
+        }
+        newOffsets[indexLimit] = position;
+        rows = indexLimit;
+        rowOffsets = newOffsets;
+        columns = newColumns;
+        weights = newWeights;
+        tombstones = 0;
+        deltaEdges = 0;
+        staleSources = 0;
+        buildColumnIndex();
+    }
+
+    //counting sort of the compacted edges by destination
+    private void buildColumnIndex()
+    {
+        inOffsets = new int[rows + 1];
+        inSources = new int[columns.length];
+        inSlots = new int[columns.length];
+        for(int column : columns)
+        {
+            inOffsets[column + 1]++;
+        }
+        for(int i = 0; i < rows; i++)
+        {
+            inOffsets[i + 1] += inOffsets[i];
+        }
+        int[] next = Arrays.copyOf(inOffsets, rows);
+        for(int i = 0; i < rows; i++)
+        {
+            for(int slot = rowOffsets[i]; slot < rowOffsets[i + 1]; slot++)
+            {
+                int k = next[columns[slot]]++;
+                inSources[k] = i;
+                inSlots[k] = slot;
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SparseGraph{" +
+                "verticesSize=" + verticesSize +
+                ", edgesSize=" + edgesSize +
+                ", tombstones=" + tombstones +
+                ", deltaEdges=" + deltaEdges +
+                ", staleSources=" + staleSources +
+                ", bijection=" + bijection +
+                '}';
+    }
+}
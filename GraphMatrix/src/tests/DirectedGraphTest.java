@@ -0,0 +1,189 @@
+package tests;
+
+import graphs.Edge;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import structures.DirectedGraph;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tests for the parts of DirectedGraph that are not in IGraph, and the edge
+ * counting cases GraphsTest doesn't cover.
+ *
+ * @author Alex K.
+ * @version 1.0
+ */
+public class DirectedGraphTest
+{
+    private DirectedGraph<String> graph;
+
+    /**
+     * Creates a new graph with a few vertices for each test.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new DirectedGraph<>();
+        for (String vertex : new String[] {"A", "B", "C", "D"})
+        {
+            graph.addVertex(vertex);
+        }
+    }
+
+    /**
+     * Verifies vertex handles map back to their vertices and work with the int methods.
+     */
+    @Test
+    public void handlesTest()
+    {
+        int a = graph.idOf("A");
+        int b = graph.idOf("B");
+        Assert.assertEquals("A", graph.vertexOf(a));
+        Assert.assertEquals(-1, graph.idOf("Z"));
+        Assert.assertNull(graph.vertexOf(100));
+
+        Assert.assertTrue(graph.addEdge(a, b, 3));
+        Assert.assertFalse("Duplicate edge was added", graph.addEdge(a, b, 4));
+        Assert.assertTrue(graph.containsEdge("A", "B"));
+        Assert.assertEquals(3, graph.edgeWeight(a, b));
+        Assert.assertEquals(-1, graph.edgeWeight(b, a));
+        Assert.assertFalse("Edge to an unused index was added", graph.addEdge(a, 100, 1));
+        Assert.assertFalse(graph.addEdge(-1, a, 1));
+
+        Assert.assertTrue(graph.removeEdge(a, b));
+        Assert.assertFalse(graph.containsEdge("A", "B"));
+    }
+
+    /**
+     * Verifies the edge count only changes when an edge is really removed.
+     */
+    @Test
+    public void removeMissingEdgeTest()
+    {
+        graph.addEdge("A", "B", 1);
+        Assert.assertFalse(graph.removeEdge("B", "A"));
+        Assert.assertFalse(graph.removeEdge("A", "Z"));
+        Assert.assertEquals(1, graph.edgeSize());
+
+        Assert.assertTrue(graph.removeEdge("A", "B"));
+        Assert.assertFalse(graph.removeEdge("A", "B"));
+        Assert.assertEquals(0, graph.edgeSize());
+    }
+
+    /**
+     * Verifies removing a vertex drops it's edges from the count, and edges
+     * of vertices after the freed index are still reported.
+     */
+    @Test
+    public void removeVertexTest()
+    {
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "A", 2);
+        graph.addEdge("C", "D", 3);
+        graph.addEdge("D", "D", 4);
+
+        Assert.assertTrue(graph.removeVertex("B"));
+        Assert.assertEquals(2, graph.edgeSize());
+
+        Set<Edge<String>> expected = new HashSet<>();
+        expected.add(new Edge<>("C", "D", 3));
+        expected.add(new Edge<>("D", "D", 4));
+        Assert.assertEquals(expected, graph.edges());
+
+        //the freed index is reused without any old edges
+        graph.addVertex("E");
+        Assert.assertFalse(graph.containsEdge("A", "E"));
+        Assert.assertEquals(expected, graph.edges());
+    }
+
+    /**
+     * Verifies edges and weights survive resizes past the 64 cells of a bitset word.
+     */
+    @Test
+    public void resizeTest()
+    {
+        DirectedGraph<Integer> numbers = new DirectedGraph<>(3);
+        for (int i = 0; i < 150; i++)
+        {
+            numbers.addVertex(i);
+            if (i > 0)
+            {
+                numbers.addEdge(i - 1, i, i);
+                numbers.addEdge(i, 0, i + 1000);
+            }
+        }
+
+        Assert.assertEquals(192, numbers.getMatrixSize());
+        Assert.assertEquals(298, numbers.edgeSize());
+        Assert.assertEquals(298, numbers.edges().size());
+        for (int i = 1; i < 150; i++)
+        {
+            Assert.assertEquals(i, numbers.edgeWeight(i - 1, i));
+            Assert.assertEquals(i + 1000, numbers.edgeWeight(i, 0));
+        }
+
+        Assert.assertTrue(numbers.removeVertex(0));
+        Assert.assertEquals(148, numbers.edgeSize());
+        numbers.clear();
+        Assert.assertEquals(0, numbers.edgeSize());
+        Assert.assertTrue(numbers.edges().isEmpty());
+    }
+
+    /**
+     * Verifies an unweighted graph reports the same weight for every edge.
+     */
+    @Test
+    public void unweightedTest()
+    {
+        DirectedGraph<String> unweighted = new DirectedGraph<>(2, false);
+        unweighted.addVertex("A");
+        unweighted.addVertex("B");
+        unweighted.addVertex("C");
+
+        Assert.assertTrue(unweighted.addEdge("A", "C", 7));
+        Assert.assertEquals(DirectedGraph.UNWEIGHTED, unweighted.edgeWeight("A", "C"));
+        Assert.assertEquals(-1, unweighted.edgeWeight("C", "A"));
+
+        Set<Edge<String>> expected = new HashSet<>();
+        expected.add(new Edge<>("A", "C", DirectedGraph.UNWEIGHTED));
+        Assert.assertEquals(expected, unweighted.edges());
+    }
+
+    /**
+     * Verifies sizes a flat matrix can't hold are rejected instead of overflowing.
+     */
+    @Test
+    public void sizeLimitTest()
+    {
+        try
+        {
+            new DirectedGraph<Integer>(DirectedGraph.MAX_WEIGHTED_SIZE + 1);
+            Assert.fail("Didn't thrown exception for a weighted graph over the limit");
+        }
+        catch (IllegalArgumentException ex)
+        {
+            //passed the test
+        }
+        try
+        {
+            new DirectedGraph<Integer>(65536);
+            Assert.fail("Didn't thrown exception for a size whose square wraps to 0");
+        }
+        catch (IllegalArgumentException ex)
+        {
+            //passed the test
+        }
+        try
+        {
+            new DirectedGraph<Integer>(DirectedGraph.MAX_UNWEIGHTED_SIZE + 1, false);
+            Assert.fail("Didn't thrown exception for an unweighted graph over the limit");
+        }
+        catch (IllegalArgumentException ex)
+        {
+            //passed the test
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import structures.IntBijection;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests the primitive keyed bijection against a HashMap.
+ *
+ * @author Alex K.
+ * @version 1.0
+ */
+public class IntBijectionTest
+{
+    /**
+     * Verifies keys and values must both be unique.
+     */
+    @Test
+    public void uniqueTest()
+    {
+        IntBijection<String> bijection = new IntBijection<>();
+        Assert.assertTrue(bijection.add(0, "A"));
+        Assert.assertFalse("Duplicate key was added", bijection.add(0, "B"));
+        Assert.assertFalse("Duplicate value was added", bijection.add(1, "A"));
+        Assert.assertEquals(1, bijection.size());
+        Assert.assertEquals(0, bijection.getKey("A"));
+        Assert.assertEquals(-1, bijection.getKey("B"));
+        Assert.assertNull(bijection.getValue(1));
+    }
+
+    /**
+     * Runs random adds and removes, enough to grow the table and shift probe runs.
+     */
+    @Test
+    public void randomTest()
+    {
+        Random random = new Random(48);
+        IntBijection<Integer> bijection = new IntBijection<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Map<Integer, Integer> values = new HashMap<>();
+
+        for (int i = 0; i < 50000; i++)
+        {
+            int key = random.nextInt(2000);
+            //few distinct hash codes, so probe runs collide a lot
+            Integer value = random.nextInt(3000) * 1024;
+            if (random.nextBoolean())
+            {
+                boolean added = !expected.containsKey(key) && !values.containsKey(value);
+                Assert.assertEquals(added, bijection.add(key, value));
+                if (added)
+                {
+                    expected.put(key, value);
+                    values.put(value, key);
+                }
+            }
+            else if (random.nextBoolean())
+            {
+                Integer removed = expected.remove(key);
+                Assert.assertEquals(removed != null, bijection.removeKey(key));
+                values.remove(removed);
+            }
+            else
+            {
+                Integer removed = values.remove(value);
+                Assert.assertEquals(removed != null, bijection.removeValue(value));
+                expected.remove(removed);
+            }
+        }
+
+        Assert.assertEquals(expected.size(), bijection.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet())
+        {
+            Assert.assertEquals(entry.getValue(), bijection.getValue(entry.getKey()));
+            Assert.assertEquals((int) entry.getKey(), bijection.getKey(entry.getValue()));
+        }
+        Assert.assertEquals(values.keySet(), bijection.valueSet());
+
+        bijection.clear();
+        Assert.assertEquals(0, bijection.size());
+        Assert.assertEquals(-1, bijection.getKey(expected.values().iterator().next()));
+    }
+}
@@ -0,0 +1,400 @@
+package tests;
+
+import graphs.Edge;
+import graphs.IGraph;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import structures.DirectedGraph;
+import structures.SparseGraph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Tests for the compressed sparse row graph, mostly around the delta buffer,
+ * tombstones and compaction that GraphsTest doesn't reach.
+ *
+ * @author Alex K.
+ * @version 1.0
+ */
+public class SparseGraphTest
+{
+    private SparseGraph<Integer> graph;
+
+    /**
+     * Creates a new graph for each test.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new SparseGraph<>();
+    }
+
+    private void addVertices(int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            graph.addVertex(i);
+        }
+    }
+
+    /**
+     * Verifies edges are directed and keep their weights before and after compaction.
+     */
+    @Test
+    public void compactKeepsEdgesTest()
+    {
+        addVertices(5);
+        Assert.assertTrue(graph.addEdge(3, 1, 7));
+        Assert.assertTrue(graph.addEdge(3, 0, 2));
+        Assert.assertTrue(graph.addEdge(0, 3, 4));
+        Assert.assertFalse("Duplicate edge was added", graph.addEdge(3, 1, 9));
+        Assert.assertFalse("Edge to a missing vertex was added", graph.addEdge(3, 10, 1));
+
+        for (int round = 0; round < 2; round++)
+        {
+            Assert.assertEquals(3, graph.edgeSize());
+            Assert.assertEquals(7, graph.edgeWeight(3, 1));
+            Assert.assertEquals(2, graph.edgeWeight(3, 0));
+            Assert.assertEquals(-1, graph.edgeWeight(1, 3));
+            Assert.assertTrue(graph.containsEdge(0, 3));
+            graph.compact();
+        }
+    }
+
+    /**
+     * Verifies a compacted edge can be removed and added again with a new weight.
+     */
+    @Test
+    public void tombstoneTest()
+    {
+        addVertices(3);
+        graph.addEdge(0, 1, 5);
+        graph.compact();
+
+        Assert.assertTrue(graph.removeEdge(0, 1));
+        Assert.assertFalse("Missing edge was removed", graph.removeEdge(0, 1));
+        Assert.assertFalse(graph.containsEdge(0, 1));
+        Assert.assertEquals(0, graph.edgeSize());
+        Assert.assertTrue("Edge set contains a removed edge", graph.edges().isEmpty());
+
+        Assert.assertTrue(graph.addEdge(0, 1, 8));
+        Assert.assertEquals(8, graph.edgeWeight(0, 1));
+        Assert.assertEquals(1, graph.edgeSize());
+    }
+
+    /**
+     * Verifies removing a vertex removes it's in and out edges, and the reused
+     * index doesn't bring them back.
+     */
+    @Test
+    public void removeVertexTest()
+    {
+        addVertices(4);
+        graph.addEdge(0, 2, 1);
+        graph.addEdge(2, 1, 1);
+        graph.compact();
+        graph.addEdge(3, 2, 1);
+
+        Assert.assertTrue(graph.removeVertex(2));
+        Assert.assertFalse(graph.removeVertex(2));
+        Assert.assertEquals(3, graph.vertexSize());
+        Assert.assertEquals(0, graph.edgeSize());
+
+        graph.addVertex(9);
+        Assert.assertFalse(graph.containsEdge(0, 9));
+        Assert.assertFalse(graph.containsEdge(9, 1));
+        Assert.assertFalse(graph.containsEdge(3, 9));
+        Assert.assertTrue(graph.edges().isEmpty());
+    }
+
+    /**
+     * Runs random changes against a map of edges, long enough to compact many times.
+     */
+    @Test
+    public void randomChangesTest()
+    {
+        Random random = new Random(47);
+        Map<Long, Integer> expected = new HashMap<>();
+        addVertices(200);
+
+        for (int i = 0; i < 20000; i++)
+        {
+            int source = random.nextInt(200);
+            int destination = random.nextInt(200);
+            long key = (long) source << 32 | destination;
+            if (random.nextInt(3) > 0)
+            {
+                int weight = random.nextInt(20);
+                Assert.assertEquals(!expected.containsKey(key), graph.addEdge(source, destination, weight));
+                expected.putIfAbsent(key, weight);
+            }
+            else
+            {
+                Assert.assertEquals(expected.remove(key) != null, graph.removeEdge(source, destination));
+            }
+        }
+
+        Assert.assertEquals(expected.size(), graph.edgeSize());
+        Set<Edge<Integer>> edges = new HashSet<>();
+        for (Map.Entry<Long, Integer> entry : expected.entrySet())
+        {
+            int source = (int) (entry.getKey() >>> 32);
+            int destination = (int) (long) entry.getKey();
+            Assert.assertEquals((int) entry.getValue(), graph.edgeWeight(source, destination));
+            edges.add(new Edge<>(source, destination, entry.getValue()));
+        }
+        Assert.assertEquals(edges, graph.edges());
+    }
+
+    /**
+     * Checks successors, predecessors, degrees and forEachOutEdge() of both graph
+     * implementations and the IGraph defaults against the edge set, after random
+     * adds and removes.
+     */
+    @Test
+    public void neighborsTest()
+    {
+        List<IGraph<Integer>> graphs = new ArrayList<>();
+        graphs.add(graph);
+        graphs.add(new DirectedGraph<>());
+        graphs.add(new DefaultsGraph<>(new DirectedGraph<>()));
+        for (IGraph<Integer> tested : graphs)
+        {
+            Random random = new Random(50);
+            for (int i = 0; i < 100; i++)
+            {
+                tested.addVertex(i);
+            }
+            for (int i = 0; i < 3000; i++)
+            {
+                int source = random.nextInt(100);
+                int destination = random.nextInt(100);
+                if (random.nextInt(4) > 0)
+                {
+                    tested.addEdge(source, destination, random.nextInt(20));
+                }
+                else
+                {
+                    tested.removeEdge(source, destination);
+                }
+            }
+            tested.removeVertex(7);
+
+            for (int vertex = 0; vertex < 100; vertex++)
+            {
+                Set<Integer> successors = new HashSet<>();
+                Set<Integer> predecessors = new HashSet<>();
+                Set<Edge<Integer>> outEdges = new HashSet<>();
+                for (Edge<Integer> edge : tested.edges())
+                {
+                    if (edge.getSource() == vertex)
+                    {
+                        successors.add(edge.getDestination());
+                        outEdges.add(edge);
+                    }
+                    if (edge.getDestination() == vertex)
+                    {
+                        predecessors.add(edge.getSource());
+                    }
+                }
+                Assert.assertEquals(successors, tested.successors(vertex));
+                Assert.assertEquals(predecessors, tested.predecessors(vertex));
+                Assert.assertEquals(successors.size(), tested.outDegree(vertex));
+                Assert.assertEquals(predecessors.size(), tested.inDegree(vertex));
+
+                Set<Edge<Integer>> visited = new HashSet<>();
+                int source = vertex;
+                tested.forEachOutEdge(vertex, (destination, weight) ->
+                        visited.add(new Edge<>(source, destination, weight)));
+                Assert.assertEquals(outEdges, visited);
+            }
+            Assert.assertTrue(tested.successors(7).isEmpty());
+            Assert.assertEquals(0, tested.inDegree(7));
+        }
+    }
+
+    /**
+     * Removes vertices and edges at random, reusing freed indexes, and checks the
+     * in edges found through the column index and the delta sources against edges().
+     */
+    @Test
+    public void inEdgesTest()
+    {
+        Random random = new Random(47);
+        addVertices(60);
+        for (int i = 0; i < 6000; i++)
+        {
+            int source = random.nextInt(60);
+            int destination = random.nextInt(60);
+            int action = random.nextInt(10);
+            if (action < 6)
+            {
+                graph.addEdge(source, destination, random.nextInt(20));
+            }
+            else if (action < 9)
+            {
+                graph.removeEdge(source, destination);
+            }
+            else
+            {
+                graph.removeVertex(source);
+                graph.addVertex(source);
+            }
+
+            if (i % 500 == 0)
+            {
+                Map<Integer, Set<Integer>> expected = new HashMap<>();
+                for (Edge<Integer> edge : graph.edges())
+                {
+                    expected.computeIfAbsent(edge.getDestination(), vertex -> new HashSet<>()).add(edge.getSource());
+                }
+                int edges = 0;
+                for (int vertex = 0; vertex < 60; vertex++)
+                {
+                    Set<Integer> predecessors = expected.getOrDefault(vertex, new HashSet<>());
+                    Assert.assertEquals(predecessors, graph.predecessors(vertex));
+                    Assert.assertEquals(predecessors.size(), graph.inDegree(vertex));
+                    edges += predecessors.size();
+                }
+                Assert.assertEquals(edges, graph.edgeSize());
+            }
+        }
+    }
+
+    /**
+     * Verifies a vertex with many out edges added in random order keeps them
+     * all, before and after compaction.
+     */
+    @Test
+    public void hubTest()
+    {
+        addVertices(2000);
+        Random random = new Random(47);
+        int[] order = new int[2000];
+        for (int i = 0; i < order.length; i++)
+        {
+            order[i] = i;
+        }
+        for (int i = order.length - 1; i > 0; i--)
+        {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        for (int destination : order)
+        {
+            Assert.assertTrue(graph.addEdge(0, destination, destination));
+        }
+        for (int round = 0; round < 2; round++)
+        {
+            Assert.assertEquals(2000, graph.outDegree(0));
+            Assert.assertEquals(2000, graph.successors(0).size());
+            for (int i = 0; i < 2000; i++)
+            {
+                Assert.assertEquals(i, graph.edgeWeight(0, i));
+            }
+            graph.compact();
+        }
+    }
+
+    /**
+     * Verifies the graph is empty and usable after clear().
+     */
+    @Test
+    public void clearTest()
+    {
+        addVertices(20);
+        graph.addEdge(1, 2, 3);
+        graph.compact();
+        graph.addEdge(2, 1, 3);
+        graph.clear();
+
+        Assert.assertEquals(0, graph.vertexSize());
+        Assert.assertEquals(0, graph.edgeSize());
+        Assert.assertTrue(graph.edges().isEmpty());
+
+        addVertices(3);
+        Assert.assertFalse(graph.containsEdge(1, 2));
+        Assert.assertTrue(graph.addEdge(1, 2, 4));
+        Assert.assertEquals(4, graph.edgeWeight(1, 2));
+    }
+
+    //passes only the abstract methods on, so the IGraph defaults are tested
+    private static class DefaultsGraph<V> implements IGraph<V>
+    {
+        private final IGraph<V> graph;
+
+        DefaultsGraph(IGraph<V> graph)
+        {
+            this.graph = graph;
+        }
+
+        public boolean addVertex(V vertex)
+        {
+            return graph.addVertex(vertex);
+        }
+
+        public boolean addEdge(V source, V destination, int weight)
+        {
+            return graph.addEdge(source, destination, weight);
+        }
+
+        public int vertexSize()
+        {
+            return graph.vertexSize();
+        }
+
+        public int edgeSize()
+        {
+            return graph.edgeSize();
+        }
+
+        public boolean containsVertex(V vertex)
+        {
+            return graph.containsVertex(vertex);
+        }
+
+        public boolean containsEdge(V source, V destination)
+        {
+            return graph.containsEdge(source, destination);
+        }
+
+        public int edgeWeight(V source, V destination)
+        {
+            return graph.edgeWeight(source, destination);
+        }
+
+        public Set<V> vertices()
+        {
+            return graph.vertices();
+        }
+
+        public Set<Edge<V>> edges()
+        {
+            return graph.edges();
+        }
+
+        public boolean removeVertex(V vertex)
+        {
+            return graph.removeVertex(vertex);
+        }
+
+        public boolean removeEdge(V source, V destination)
+        {
+            return graph.removeEdge(source, destination);
+        }
+
+        public void clear()
+        {
+            graph.clear();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package representations;
 
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * @author Alex Krytskyi
@@ -13,9 +14,12 @@ import java.util.*;
 public class DirectedGraphAL<V>
 {
     public Map<V, LinkedList<Edge<V>>> adjacencyLists;
+    //sources of the edges entering each vertex, so predecessors don't scan every list
+    private Map<V, LinkedList<V>> incomingLists;
     public DirectedGraphAL()
     {
         adjacencyLists = new HashMap<>();
+        incomingLists = new HashMap<>();
     }
 
     public boolean addVertex(V element)
@@ -24,6 +28,7 @@ public class DirectedGraphAL<V>
         {
             //add
             adjacencyLists.put(element, new LinkedList<Edge<V>>());
+            incomingLists.put(element, new LinkedList<V>());
             return true;
         }
         else
@@ -49,6 +54,7 @@ public class DirectedGraphAL<V>
         else
         {
             adjacencyList.add(newEdge);
+            incomingLists.get(dest).add(source);
             return true;
         }
     }
@@ -75,6 +81,45 @@ public class DirectedGraphAL<V>
         return results;
     }
 
+    //neighbors of one vertex, O(degree). Missing vertices have no neighbors
+    public Set<V> successors(V element)
+    {
+        Set<V> results = new HashSet<>();
+        forEachOutEdge(element, results::add);
+        return results;
+    }
+
+    public Set<V> predecessors(V element)
+    {
+        LinkedList<V> incomingList = incomingLists.get(element);
+        return (incomingList == null) ? new HashSet<V>() : new HashSet<>(incomingList);
+    }
+
+    public int outDegree(V element)
+    {
+        LinkedList<Edge<V>> adjacencyList = adjacencyLists.get(element);
+        return (adjacencyList == null) ? 0 : adjacencyList.size();
+    }
+
+    public int inDegree(V element)
+    {
+        LinkedList<V> incomingList = incomingLists.get(element);
+        return (incomingList == null) ? 0 : incomingList.size();
+    }
+
+    //the graph is unweighted, so the consumer only gets the destinations
+    public void forEachOutEdge(V element, Consumer<? super V> consumer)
+    {
+        LinkedList<Edge<V>> adjacencyList = adjacencyLists.get(element);
+        if(adjacencyList != null)
+        {
+            for(Edge<V> edge : adjacencyList)
+            {
+                consumer.accept(edge.getDest());
+            }
+        }
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,136 @@
+package tests;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import representations.DirectedGraphAL;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Tests for the neighbor queries of the adjacency list graph.
+ *
+ * @author Alex Krytskyi
+ * @version 1.0
+ */
+public class DirectedGraphALTest
+{
+    private DirectedGraphAL<String> graph;
+
+    /**
+     * Creates a small social network for each test.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new DirectedGraphAL<>();
+        for (String vertex : new String[] {"Jose", "Lisa", "Bob", "Kevin", "Susie"})
+        {
+            graph.addVertex(vertex);
+        }
+        graph.addEdge("Jose", "Lisa");
+        graph.addEdge("Lisa", "Jose");
+        graph.addEdge("Bob", "Lisa");
+        graph.addEdge("Kevin", "Lisa");
+        graph.addEdge("Lisa", "Susie");
+        graph.addEdge("Susie", "Jose");
+    }
+
+    /**
+     * Verifies successors and predecessors follow the edge directions.
+     */
+    @Test
+    public void neighborsTest()
+    {
+        Assert.assertEquals(new HashSet<>(Arrays.asList("Jose", "Susie")), graph.successors("Lisa"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("Jose", "Bob", "Kevin")), graph.predecessors("Lisa"));
+        Assert.assertTrue(graph.successors("Kevin").contains("Lisa"));
+        Assert.assertTrue(graph.predecessors("Kevin").isEmpty());
+    }
+
+    /**
+     * Verifies degrees count every edge once, duplicate edges included.
+     */
+    @Test
+    public void degreesTest()
+    {
+        Assert.assertFalse("Duplicate edge was added", graph.addEdge("Bob", "Lisa"));
+        Assert.assertEquals(2, graph.outDegree("Lisa"));
+        Assert.assertEquals(3, graph.inDegree("Lisa"));
+        Assert.assertEquals(1, graph.outDegree("Bob"));
+        Assert.assertEquals(0, graph.inDegree("Bob"));
+        Assert.assertEquals(2, graph.inDegree("Jose"));
+    }
+
+    /**
+     * Verifies a vertex that is not in the graph has no neighbors.
+     */
+    @Test
+    public void missingVertexTest()
+    {
+        Assert.assertTrue(graph.successors("Zoe").isEmpty());
+        Assert.assertTrue(graph.predecessors("Zoe").isEmpty());
+        Assert.assertEquals(0, graph.outDegree("Zoe"));
+        Assert.assertEquals(0, graph.inDegree("Zoe"));
+
+        List<String> visited = new ArrayList<>();
+        graph.forEachOutEdge("Zoe", visited::add);
+        Assert.assertTrue(visited.isEmpty());
+    }
+
+    /**
+     * Verifies forEachOutEdge() visits each destination once.
+     */
+    @Test
+    public void forEachOutEdgeTest()
+    {
+        List<String> visited = new ArrayList<>();
+        graph.forEachOutEdge("Lisa", visited::add);
+        Assert.assertEquals(2, visited.size());
+        Assert.assertEquals(graph.successors("Lisa"), new HashSet<>(visited));
+    }
+
+    /**
+     * Adds random edges, self loops included, and checks every vertex against edges().
+     */
+    @Test
+    public void randomEdgesTest()
+    {
+        DirectedGraphAL<Integer> numbers = new DirectedGraphAL<>();
+        Random random = new Random(50);
+        for (int i = 0; i < 50; i++)
+        {
+            numbers.addVertex(i);
+        }
+        for (int i = 0; i < 600; i++)
+        {
+            numbers.addEdge(random.nextInt(50), random.nextInt(50));
+        }
+
+        for (int vertex = 0; vertex < 50; vertex++)
+        {
+            Set<Integer> successors = new HashSet<>();
+            Set<Integer> predecessors = new HashSet<>();
+            for (DirectedGraphAL.Edge<Integer> edge : numbers.edges())
+            {
+                if (edge.getSource() == vertex)
+                {
+                    successors.add(edge.getDest());
+                }
+                if (edge.getDest() == vertex)
+                {
+                    predecessors.add(edge.getSource());
+                }
+            }
+            Assert.assertEquals(successors, numbers.successors(vertex));
+            Assert.assertEquals(predecessors, numbers.predecessors(vertex));
+            Assert.assertEquals(successors.size(), numbers.outDegree(vertex));
+            Assert.assertEquals(predecessors.size(), numbers.inDegree(vertex));
+        }
+    }
+}